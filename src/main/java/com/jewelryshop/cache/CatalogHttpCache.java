@@ -0,0 +1,140 @@
+package com.jewelryshop.cache;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.env.Environment;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Conditional GET support for the public catalog endpoints. Controllers call
+ * {@link #checkNotModified} before doing any work and return null when it answers 304.
+ * Otherwise the validators are held on the request and only written once the response
+ * turns out to be a 200, so error responses are never cached.
+ *
+ * ETags are weak: the same version is served both gzipped and as identity, and the two
+ * bodies must not share a strong validator.
+ *
+ * Cache-Control is configured per endpoint through
+ * {@code catalog.http-cache.<endpoint>.max-age-seconds} and
+ * {@code catalog.http-cache.<endpoint>.stale-while-revalidate-seconds},
+ * falling back to the {@code catalog.http-cache.default.*} values.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogHttpCache {
+
+    public static final String SURROGATE_KEY = "Surrogate-Key";
+    public static final String PRODUCTS_KEY = "products";
+    public static final String CATEGORIES_KEY = "categories";
+
+    private static final String PREFIX = "catalog.http-cache.";
+    private static final String PENDING_HEADERS = CatalogHttpCache.class.getName() + ".pendingHeaders";
+
+    private final Environment environment;
+    private final Map<String, CacheControl> policies = new ConcurrentHashMap<>();
+
+    // True means a 304 has been prepared; otherwise the caching headers wait for a 200
+    public boolean checkNotModified(WebRequest request, String endpoint, String etag, long lastModified) {
+        HttpServletRequest servletRequest = ((NativeWebRequest) request).getNativeRequest(HttpServletRequest.class);
+        HttpServletResponse response = ((NativeWebRequest) request).getNativeResponse(HttpServletResponse.class);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(policy(endpoint).getHeaderValue());
+        headers.setETag("W/\"" + etag + "\"");
+        headers.setLastModified(lastModified);
+
+        // Evaluated without the response, which Spring would otherwise stamp with the validators right away
+        if (new ServletWebRequest(servletRequest).checkNotModified(headers.getETag(), lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            writeHeaders(headers, response);
+            return true;
+        }
+        servletRequest.setAttribute(PENDING_HEADERS, headers);
+        return false;
+    }
+
+    // Called just before a body is written; error statuses leave the response uncacheable
+    public static void applyPendingHeaders(HttpServletRequest request, HttpServletResponse response) {
+        if (request.getAttribute(PENDING_HEADERS) instanceof HttpHeaders headers
+                && response.getStatus() == HttpServletResponse.SC_OK) {
+            request.removeAttribute(PENDING_HEADERS);
+            writeHeaders(headers, response);
+        }
+    }
+
+    private static void writeHeaders(HttpHeaders headers, HttpServletResponse response) {
+        headers.forEach((name, values) -> values.forEach(value -> response.setHeader(name, value)));
+    }
+
+    public void surrogateKeys(WebRequest request, Collection<String> keys) {
+        HttpServletResponse response = ((NativeWebRequest) request).getNativeResponse(HttpServletResponse.class);
+        if (response != null && !keys.isEmpty()) {
+            response.setHeader(SURROGATE_KEY, String.join(" ", keys));
+        }
+    }
+
+    public static List<String> productDetailKeys(Long productId, Long categoryId) {
+        List<String> keys = new ArrayList<>();
+        keys.add(productKey(productId));
+        if (categoryId != null) {
+            keys.add(categoryKey(categoryId));
+        }
+        return keys;
+    }
+
+    // Listing responses are tagged with every product on the page so a purge by product id reaches them
+    public void tagProducts(WebRequest request, Long categoryId, Collection<Long> productIds) {
+        surrogateKeys(request, productListKeys(categoryId, productIds));
+    }
+
+    public static List<String> productListKeys(Long categoryId, Collection<Long> productIds) {
+        List<String> keys = new ArrayList<>();
+        keys.add(PRODUCTS_KEY);
+        if (categoryId != null) {
+            keys.add(categoryKey(categoryId));
+        }
+        productIds.forEach(id -> keys.add(productKey(id)));
+        return keys;
+    }
+
+    public static String productKey(Long productId) {
+        return "product-" + productId;
+    }
+
+    public static String categoryKey(Long categoryId) {
+        return "category-" + categoryId;
+    }
+
+    private CacheControl policy(String endpoint) {
+        return policies.computeIfAbsent(endpoint, name -> {
+            long maxAge = setting(name, "max-age-seconds", 60);
+            long staleWhileRevalidate = setting(name, "stale-while-revalidate-seconds", 0);
+
+            CacheControl cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAge)).cachePublic();
+            if (staleWhileRevalidate > 0) {
+                cacheControl = cacheControl.staleWhileRevalidate(Duration.ofSeconds(staleWhileRevalidate));
+            }
+            return cacheControl;
+        });
+    }
+
+    private long setting(String endpoint, String property, long fallback) {
+        Long value = environment.getProperty(PREFIX + endpoint + "." + property, Long.class);
+        if (value != null) {
+            return value;
+        }
+        return environment.getProperty(PREFIX + "default." + property, Long.class, fallback);
+    }
+}
@@ -0,0 +1,84 @@
+package com.jewelryshop.cache;
+
+import com.jewelryshop.event.CategoryChangedEvent;
+import com.jewelryshop.event.ProductChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version stamps for catalog resources, bumped from change events and used to build
+ * validators for HTTP caching. Versions are millisecond timestamps that only move forward,
+ * so they double as Last-Modified values. Stamps start at boot time, which makes every
+ * validator issued by a previous run stale.
+ *
+ * Versions live in this JVM and only move on its own change events, like the in-memory
+ * indexes. With several instances behind a load balancer one instance would keep
+ * answering 304 after another changed the catalog, so HTTP caching assumes a single instance.
+ */
+@Component
+public class CatalogVersions {
+
+    private final long startedAt = System.currentTimeMillis();
+
+    // Any product or category change: listings, search and featured pages
+    private final AtomicLong listings = new AtomicLong(startedAt);
+    // Category definitions (names, parents), embedded in every product response
+    private final AtomicLong categoryDefinitions = new AtomicLong(startedAt);
+    // Category tree responses, which also carry product counts; bumped by CategoryTreeSnapshot
+    // once a rebuilt tree is live, so a validator never names content not yet served
+    private final AtomicLong categoryTree = new AtomicLong(startedAt);
+    private final Map<Long, Long> products = new ConcurrentHashMap<>();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        products.compute(event.getProductId(), (id, version) -> next(version != null ? version : startedAt));
+        bump(listings);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        bump(categoryDefinitions);
+        bump(listings);
+    }
+
+    public void categoryTreeRebuilt() {
+        bump(categoryTree);
+    }
+
+    public long productVersion(Long productId) {
+        return Math.max(products.getOrDefault(productId, startedAt), categoryDefinitions.get());
+    }
+
+    public String productEtag(Long productId) {
+        return "p" + productId + "-" + Long.toHexString(products.getOrDefault(productId, startedAt))
+                + "-" + Long.toHexString(categoryDefinitions.get());
+    }
+
+    public long listingVersion() {
+        return listings.get();
+    }
+
+    public String listingEtag() {
+        return "l-" + Long.toHexString(listings.get());
+    }
+
+    public long categoryTreeVersion() {
+        return categoryTree.get();
+    }
+
+    public String categoryTreeEtag() {
+        return "c-" + Long.toHexString(categoryTree.get());
+    }
+
+    private static void bump(AtomicLong version) {
+        version.updateAndGet(CatalogVersions::next);
+    }
+
+    private static long next(long current) {
+        return Math.max(current + 1, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,220 @@
+package com.jewelryshop.cache;
+
+import com.jewelryshop.dto.CategoryResponse;
+import com.jewelryshop.event.CategoryChangedEvent;
+import com.jewelryshop.event.ProductChangedEvent;
+import com.jewelryshop.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The whole category tree with product counts, built from one query and replaced as a
+ * unit. Category changes and product changes that move a count only mark the snapshot
+ * stale; a background task rebuilds it, so writers never wait for the tree query and a
+ * burst of changes costs one rebuild. Readers share the snapshot without locking or
+ * copying: its nodes reject every setter and their subcategory lists are unmodifiable.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryTreeSnapshot {
+
+    private final CategoryRepository categoryRepository;
+    private final CatalogVersions catalogVersions;
+
+    private final AtomicBoolean stale = new AtomicBoolean();
+
+    // Snapshot node; fields are assigned by the constructor and never change afterwards
+    private static final class FrozenCategory extends CategoryResponse {
+
+        FrozenCategory(CategoryResponse category, List<CategoryResponse> subCategories) {
+            super(category.getId(), category.getName(), category.getDescription(), category.getParentId(),
+                    category.getParentName(), category.getProductCount(), subCategories, category.getCreatedAt());
+        }
+
+        @Override
+        public void setId(Long id) {
+            throw frozen();
+        }
+
+        @Override
+        public void setName(String name) {
+            throw frozen();
+        }
+
+        @Override
+        public void setDescription(String description) {
+            throw frozen();
+        }
+
+        @Override
+        public void setParentId(Long parentId) {
+            throw frozen();
+        }
+
+        @Override
+        public void setParentName(String parentName) {
+            throw frozen();
+        }
+
+        @Override
+        public void setProductCount(Integer productCount) {
+            throw frozen();
+        }
+
+        @Override
+        public void setSubCategories(List<CategoryResponse> subCategories) {
+            throw frozen();
+        }
+
+        @Override
+        public void setCreatedAt(LocalDateTime createdAt) {
+            throw frozen();
+        }
+
+        private static UnsupportedOperationException frozen() {
+            return new UnsupportedOperationException("Category tree snapshot entries are read-only");
+        }
+    }
+
+    private static final class Snapshot {
+        private final List<CategoryResponse> roots;
+        private final Map<Long, CategoryResponse> byId;
+
+        Snapshot(List<CategoryResponse> roots, Map<Long, CategoryResponse> byId) {
+            this.roots = roots;
+            this.byId = byId;
+        }
+    }
+
+    private volatile Snapshot snapshot;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // The first read builds the snapshot instead
+            log.error("Failed to build category tree snapshot", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        stale.set(true);
+    }
+
+    // Created, deleted or re-categorised products change counts; other edits, stock and
+    // rating changes do not
+    @TransactionalEventListener(fallbackExecution = true, condition = "#event.categoryCountChange")
+    public void onProductChanged(ProductChangedEvent event) {
+        stale.set(true);
+    }
+
+    // Cleared before reading, so a change committed during the rebuild triggers another one
+    @Scheduled(fixedDelayString = "${catalog.categories.refresh-interval-ms:1000}")
+    public void refreshIfStale() {
+        if (!stale.getAndSet(false)) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            stale.set(true);
+            log.error("Failed to rebuild category tree snapshot", e);
+        }
+    }
+
+    /**
+     * Top-level categories, each with its subcategories nested, ordered by id. The list and
+     * every category in it are read-only and shared between requests.
+     */
+    public List<CategoryResponse> roots() {
+        return current().roots;
+    }
+
+    public CategoryResponse get(Long categoryId) {
+        return current().byId.get(categoryId);
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        return current != null ? current : rebuild();
+    }
+
+    // Serialized so a slower build can never replace a newer snapshot
+    private synchronized Snapshot rebuild() {
+        long start = System.currentTimeMillis();
+        List<Object[]> rows = categoryRepository.findTreeRows();
+
+        Map<Long, CategoryResponse> rowsById = new HashMap<>(rows.size() * 2);
+        Map<Long, List<CategoryResponse>> children = new HashMap<>();
+        List<CategoryResponse> roots = new ArrayList<>();
+        for (Object[] row : rows) {
+            CategoryResponse category = new CategoryResponse();
+            category.setId((Long) row[0]);
+            category.setName((String) row[1]);
+            category.setDescription((String) row[2]);
+            category.setCreatedAt((LocalDateTime) row[3]);
+            category.setParentId((Long) row[4]);
+            category.setParentName((String) row[5]);
+            category.setProductCount(((Long) row[6]).intValue());
+            rowsById.put(category.getId(), category);
+            if (category.getParentId() == null) {
+                roots.add(category);
+            } else {
+                children.computeIfAbsent(category.getParentId(), id -> new ArrayList<>()).add(category);
+            }
+        }
+
+        // Frozen bottom-up from the roots; a category whose parent chain never reaches a root
+        // is still reachable by id
+        Map<Long, CategoryResponse> byId = new HashMap<>(rowsById.size() * 2);
+        Set<Long> visited = new HashSet<>();
+        List<CategoryResponse> frozenRoots = freezeAll(roots, children, byId, visited);
+        freezeAll(new ArrayList<>(rowsById.values()), children, byId, visited);
+
+        Snapshot built = new Snapshot(frozenRoots, Map.copyOf(byId));
+        snapshot = built;
+        catalogVersions.categoryTreeRebuilt();
+        log.debug("Category tree snapshot built: {} categories in {} ms", rows.size(), System.currentTimeMillis() - start);
+        return built;
+    }
+
+    // Freezes the categories and their subtrees, sorted by id; visited guards against parent cycles
+    private static List<CategoryResponse> freezeAll(List<CategoryResponse> categories,
+                                                    Map<Long, List<CategoryResponse>> children,
+                                                    Map<Long, CategoryResponse> frozenById,
+                                                    Set<Long> visited) {
+        List<CategoryResponse> sorted = new ArrayList<>(categories);
+        sorted.sort(Comparator.comparing(CategoryResponse::getId));
+        List<CategoryResponse> frozen = new ArrayList<>(sorted.size());
+        for (CategoryResponse category : sorted) {
+            if (!visited.add(category.getId())) {
+                continue;
+            }
+            List<CategoryResponse> subCategories = children.getOrDefault(category.getId(), List.of());
+            CategoryResponse node = new FrozenCategory(category, freezeAll(subCategories, children, frozenById, visited));
+            frozenById.put(node.getId(), node);
+            frozen.add(node);
+        }
+        return List.copyOf(frozen);
+    }
+}
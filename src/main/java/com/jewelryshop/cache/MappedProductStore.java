@@ -0,0 +1,481 @@
+package com.jewelryshop.cache;
+
+import com.jewelryshop.dto.ProductSummaryResponse;
+import com.jewelryshop.dto.ReadModelStatsResponse;
+import com.jewelryshop.event.ProductChangedEvent;
+import com.jewelryshop.repository.ProductRepository;
+import com.jewelryshop.search.RebuildGate;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Optional off-heap read model: the listing fields of every active product, stored as
+ * fixed-size records in a memory-mapped file with an on-heap id → offset index.
+ * Changes append a new record and mark the old one dead, and live records are slid down
+ * over dead ones whenever the dead outnumber them. The file survives restarts, so a warm
+ * start only rescans the index and reconciles with the database in place.
+ * The file is locked while open, so every instance on a host needs its own path.
+ */
+@Component
+@Slf4j
+public class MappedProductStore {
+
+    private static final int MAGIC = 0x4A57524D; // "JWRM"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int HEADER_RECORD_COUNT = 12;
+
+    // Record layout; strings are length-prefixed UTF-8, products that don't fit stay on the database path
+    private static final int RECORD_SIZE = 1024;
+    private static final int ID = 0;
+    private static final int STATUS = 8;
+    private static final int STOCK = 12;
+    private static final int CATEGORY_ID = 16;
+    private static final int PRICE_CENTS = 24;
+    private static final int EFFECTIVE_PRICE_CENTS = 32;
+    private static final int AVERAGE_RATING = 40;
+    private static final int REVIEW_COUNT = 48;
+    private static final int NAME = 56;
+    private static final int NAME_MAX_BYTES = 300;
+    private static final int IMAGE_URL = NAME + 2 + NAME_MAX_BYTES;
+    private static final int IMAGE_URL_MAX_BYTES = 600;
+
+    private static final byte DEAD = 0;
+    private static final byte LIVE = 1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    // A single mapping is limited to 2 GB
+    private static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE;
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+    private final boolean enabled;
+    private final Path path;
+    private final RebuildGate<Long> reconcileGate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> slotById = new HashMap<>();
+
+    private FileChannel channel;
+    private FileLock fileLock;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int recordCount;
+    private boolean warmStart;
+
+    private volatile boolean ready;
+
+    public MappedProductStore(ProductRepository productRepository,
+                              @Value("${catalog.read-model.mapped.enabled:false}") boolean enabled,
+                              @Value("${catalog.read-model.mapped.path:${java.io.tmpdir}/jewelry-catalog-${server.port:8080}.dat}") String path,
+                              PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.enabled = enabled;
+        this.path = Paths.get(path);
+        this.reconcileGate = new RebuildGate<>("mapped product store", transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void open() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        // Reconcile reads pages and writes them later; changes arriving meanwhile are applied after it
+        reconcileGate.beginRebuild();
+        try {
+            lock.writeLock().lock();
+            try {
+                lockFile();
+                warmStart = mapExisting();
+                if (warmStart) {
+                    // Serve the previous run's records while reconciling with the database below
+                    ready = true;
+                    log.info("Mapped product store reopened: {} products in {} ms",
+                            slotById.size(), System.currentTimeMillis() - start);
+                } else {
+                    mapFresh();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            int changed = reconcile();
+            ready = true;
+            log.info("Mapped product store synced: {} products, {} records rewritten in {} ms",
+                    slotById.size(), changed, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            // Summaries keep using the database projection
+            ready = false;
+            log.error("Failed to open mapped product store at {}", path, e);
+        } finally {
+            reconcileGate.endRebuild(this::reload);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        reconcileGate.submit(event.getProductId(), this::reload);
+    }
+
+    private void reload(Long productId) {
+        if (!ready) {
+            return;
+        }
+        List<Object[]> documents = productRepository.findReadModelDocumentById(productId);
+
+        lock.writeLock().lock();
+        try {
+            if (documents.isEmpty()) {
+                remove(productId);
+            } else {
+                put(documents.get(0));
+            }
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns summaries for the given ids in the same order, or null if any of them is
+     * missing from the store so the caller can fall back to the database for the page.
+     */
+    public List<ProductSummaryResponse> getSummaries(List<Long> productIds) {
+        if (!ready) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            List<ProductSummaryResponse> summaries = new ArrayList<>(productIds.size());
+            for (Long productId : productIds) {
+                Integer slot = slotById.get(productId);
+                if (slot == null) {
+                    return null;
+                }
+                summaries.add(read(offset(slot)));
+            }
+            return summaries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public ReadModelStatsResponse stats() {
+        lock.readLock().lock();
+        try {
+            return new ReadModelStatsResponse(enabled, ready, warmStart, slotById.size(),
+                    recordCount - slotById.size(), (long) HEADER_SIZE + (long) capacity * RECORD_SIZE);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            if (buffer != null) {
+                buffer.force();
+            }
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to close mapped product store", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Rewrites records that differ from the database and drops products that are gone
+    private int reconcile() {
+        Set<Long> seen = new HashSet<>();
+        int changed = 0;
+        long afterId = 0L;
+        while (true) {
+            List<Object[]> documents = productRepository.findReadModelDocumentsAfter(
+                    afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            if (documents.isEmpty()) {
+                break;
+            }
+            lock.writeLock().lock();
+            try {
+                for (Object[] document : documents) {
+                    seen.add((Long) document[0]);
+                    if (put(document)) {
+                        changed++;
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            afterId = (Long) documents.get(documents.size() - 1)[0];
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Long productId : new ArrayList<>(slotById.keySet())) {
+                if (!seen.contains(productId)) {
+                    remove(productId);
+                    changed++;
+                }
+            }
+            compactIfSparse();
+            buffer.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return changed;
+    }
+
+    // Appends the document unless the stored record is already identical; returns whether it wrote
+    private boolean put(Object[] document) {
+        Long productId = (Long) document[0];
+        byte[] record = encode(document);
+        Integer slot = slotById.get(productId);
+        if (record == null) {
+            remove(productId);
+            return slot != null;
+        }
+        if (slot != null && sameRecord(slot, record)) {
+            return false;
+        }
+
+        ensureCapacity(recordCount + 1);
+        int newSlot = recordCount;
+        buffer.put(offset(newSlot), record);
+        recordCount++;
+        buffer.putInt(HEADER_RECORD_COUNT, recordCount);
+        if (slot != null) {
+            buffer.put(offset(slot) + STATUS, DEAD);
+        }
+        slotById.put(productId, newSlot);
+        return true;
+    }
+
+    private void remove(Long productId) {
+        Integer slot = slotById.remove(productId);
+        if (slot != null) {
+            buffer.put(offset(slot) + STATUS, DEAD);
+        }
+    }
+
+    private boolean sameRecord(int slot, byte[] record) {
+        byte[] stored = new byte[RECORD_SIZE];
+        buffer.get(offset(slot), stored);
+        return Arrays.equals(stored, record);
+    }
+
+    // Document columns: id, name, price, discountPrice, stockQuantity, categoryId, primary image url, rating, review count
+    private static byte[] encode(Object[] document) {
+        byte[] name = utf8((String) document[1]);
+        byte[] imageUrl = utf8((String) document[6]);
+        if (name.length > NAME_MAX_BYTES || imageUrl.length > IMAGE_URL_MAX_BYTES) {
+            return null;
+        }
+        BigDecimal price = document[2] != null ? (BigDecimal) document[2] : BigDecimal.ZERO;
+        BigDecimal effectivePrice = document[3] != null ? (BigDecimal) document[3] : price;
+        Integer stock = (Integer) document[4];
+        Long categoryId = (Long) document[5];
+        Double averageRating = (Double) document[7];
+        Long reviewCount = (Long) document[8];
+
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        record.putLong(ID, (Long) document[0]);
+        record.put(STATUS, LIVE);
+        record.putInt(STOCK, stock != null ? stock : 0);
+        record.putLong(CATEGORY_ID, categoryId != null ? categoryId : 0L);
+        record.putLong(PRICE_CENTS, cents(price));
+        record.putLong(EFFECTIVE_PRICE_CENTS, cents(effectivePrice));
+        record.putDouble(AVERAGE_RATING, averageRating != null ? averageRating : 0.0);
+        record.putLong(REVIEW_COUNT, reviewCount != null ? reviewCount : 0L);
+        record.putShort(NAME, (short) name.length);
+        record.put(NAME + 2, name);
+        record.putShort(IMAGE_URL, (short) (document[6] != null ? imageUrl.length : -1));
+        record.put(IMAGE_URL + 2, imageUrl);
+        return record.array();
+    }
+
+    private ProductSummaryResponse read(int offset) {
+        return new ProductSummaryResponse(
+                buffer.getLong(offset + ID),
+                readString(offset + NAME),
+                BigDecimal.valueOf(buffer.getLong(offset + PRICE_CENTS), 2),
+                BigDecimal.valueOf(buffer.getLong(offset + EFFECTIVE_PRICE_CENTS), 2),
+                readString(offset + IMAGE_URL),
+                buffer.getDouble(offset + AVERAGE_RATING),
+                buffer.getLong(offset + REVIEW_COUNT),
+                buffer.getInt(offset + STOCK));
+    }
+
+    private String readString(int offset) {
+        short length = buffer.getShort(offset);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(offset + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Reopens the previous file and rebuilds the index from its live records; later records win
+    // Two processes appending to the same file would corrupt each other's records
+    private void lockFile() throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            fileLock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // Held by another store in this JVM
+            fileLock = null;
+        }
+        if (fileLock == null) {
+            channel.close();
+            throw new IllegalStateException("Mapped product store " + path
+                    + " is in use by another instance; give each instance its own catalog.read-model.mapped.path");
+        }
+    }
+
+    private boolean mapExisting() throws IOException {
+        if (channel.size() < HEADER_SIZE) {
+            return false;
+        }
+        long records = (channel.size() - HEADER_SIZE) / RECORD_SIZE;
+        capacity = (int) Math.min(Math.max(records, 1), MAX_CAPACITY);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * RECORD_SIZE);
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION || buffer.getInt(8) != RECORD_SIZE
+                || buffer.getInt(HEADER_RECORD_COUNT) > capacity) {
+            log.warn("Ignoring incompatible mapped product store at {}", path);
+            return false;
+        }
+
+        recordCount = buffer.getInt(HEADER_RECORD_COUNT);
+        slotById.clear();
+        for (int slot = 0; slot < recordCount; slot++) {
+            int offset = offset(slot);
+            if (buffer.get(offset + STATUS) == LIVE) {
+                Integer previous = slotById.put(buffer.getLong(offset + ID), slot);
+                if (previous != null) {
+                    buffer.put(offset(previous) + STATUS, DEAD);
+                }
+            }
+        }
+        return true;
+    }
+
+    private void mapFresh() throws IOException {
+        channel.truncate(0);
+        capacity = INITIAL_CAPACITY;
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * RECORD_SIZE);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, FORMAT_VERSION);
+        buffer.putInt(8, RECORD_SIZE);
+        recordCount = 0;
+        buffer.putInt(HEADER_RECORD_COUNT, recordCount);
+        slotById.clear();
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= capacity) {
+            return;
+        }
+        if (required > MAX_CAPACITY) {
+            throw new IllegalStateException("Mapped product store is full");
+        }
+        int newCapacity = (int) Math.min(Math.max((long) capacity * 2, required), MAX_CAPACITY);
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) newCapacity * RECORD_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        capacity = newCapacity;
+    }
+
+    // Slides live records down over dead ones once they make up more than half the file.
+    // Also called after every runtime change, so the file stays bounded between restarts.
+    // A record is marked dead while it is overwritten, so a crash leaves at worst a duplicate.
+    private void compactIfSparse() {
+        if (recordCount - slotById.size() <= slotById.size()) {
+            return;
+        }
+        Map<Long, Integer> moved = new HashMap<>();
+        byte[] record = new byte[RECORD_SIZE];
+        int target = 0;
+        for (int slot = 0; slot < recordCount; slot++) {
+            int offset = offset(slot);
+            if (buffer.get(offset + STATUS) != LIVE) {
+                continue;
+            }
+            if (slot != target) {
+                buffer.get(offset, record);
+                int targetOffset = offset(target);
+                buffer.put(targetOffset + STATUS, DEAD);
+                buffer.put(targetOffset, record, 0, STATUS);
+                buffer.put(targetOffset + STATUS + 1, record, STATUS + 1, RECORD_SIZE - STATUS - 1);
+                buffer.put(targetOffset + STATUS, LIVE);
+                buffer.put(offset + STATUS, DEAD);
+            }
+            moved.put(buffer.getLong(offset(target) + ID), target);
+            target++;
+        }
+        recordCount = target;
+        buffer.putInt(HEADER_RECORD_COUNT, recordCount);
+        slotById.clear();
+        slotById.putAll(moved);
+    }
+
+    private static int offset(int slot) {
+        return HEADER_SIZE + slot * RECORD_SIZE;
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+    }
+}
@@ -0,0 +1,54 @@
+package com.jewelryshop.cache;
+
+import com.jewelryshop.dto.CacheStatsResponse;
+import com.jewelryshop.dto.ProductResponse;
+import com.jewelryshop.event.CategoryChangedEvent;
+import com.jewelryshop.event.ProductChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.function.Supplier;
+
+@Component
+@Slf4j
+public class ProductDetailCache {
+
+    // Rendered responses are built from this cache, so it must be invalidated before them:
+    // otherwise a render between the two evictions re-caches the stale detail for a full TTL
+    public static final int EVICTION_ORDER = Ordered.HIGHEST_PRECEDENCE;
+
+    private final BoundedTtlCache<Long, ProductResponse> cache;
+
+    public ProductDetailCache(@Value("${catalog.cache.product-detail.max-size:500}") int maxSize,
+                              @Value("${catalog.cache.product-detail.ttl-seconds:300}") long ttlSeconds) {
+        this.cache = new BoundedTtlCache<>("product-detail", maxSize, ttlSeconds * 1000);
+    }
+
+    public ProductResponse getOrLoad(Long productId, Supplier<ProductResponse> loader) {
+        return cache.getOrLoad(productId, loader);
+    }
+
+    // Any change to a product, its stock or its reviews makes the cached response stale
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(EVICTION_ORDER)
+    public void onProductChanged(ProductChangedEvent event) {
+        cache.invalidate(event.getProductId());
+        log.debug("Evicted product {} from detail cache ({})", event.getProductId(), event.getType());
+    }
+
+    // Product responses embed the category name, so a category change can touch any of them
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(EVICTION_ORDER)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        cache.invalidateAll();
+        log.debug("Cleared product detail cache after category {} change ({})", event.getCategoryId(), event.getType());
+    }
+
+    public CacheStatsResponse stats() {
+        return cache.stats();
+    }
+}
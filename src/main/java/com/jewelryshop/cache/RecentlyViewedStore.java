@@ -0,0 +1,279 @@
+package com.jewelryshop.cache;
+
+import com.jewelryshop.entity.RecentlyViewed;
+import com.jewelryshop.repository.RecentlyViewedRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Last N products each signed-in user opened. Views are queued by the request thread and
+ * applied by a background drain to per-user rings of primitive ids, held in an LRU map
+ * capped at a fixed number of users. Changed rings are upserted to recently_viewed in
+ * one JDBC batch per flush, and users evicted or unseen since startup are read back from it.
+ */
+@Component
+@Slf4j
+public class RecentlyViewedStore {
+
+    private static final String UPSERT_SQL = "INSERT INTO recently_viewed (user_id, product_ids, updated_at) " +
+            "VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE product_ids = VALUES(product_ids), updated_at = VALUES(updated_at)";
+
+    private final RecentlyViewedRepository recentlyViewedRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int ringSize;
+
+    // Pairs of (userId, productId)
+    private final BlockingQueue<long[]> pendingViews;
+    private final AtomicLong droppedViews = new AtomicLong();
+
+    // Guarded by itself, as are dirty and evictedDirty
+    private final LinkedHashMap<Long, Ring> rings;
+    private final Set<Long> dirty = new HashSet<>();
+    private final Map<Long, long[]> evictedDirty = new HashMap<>();
+
+    /**
+     * Fixed-capacity ring of product ids without duplicates; viewing a product again moves it to the front.
+     */
+    private static final class Ring {
+        private final long[] ids;
+        private int head;
+        private int size;
+
+        Ring(int capacity) {
+            this.ids = new long[capacity];
+        }
+
+        void push(long productId) {
+            // Close the gap left by an earlier view of the same product, newest side first
+            int existing = indexOf(productId);
+            if (existing >= 0) {
+                for (int i = existing; i > 0; i--) {
+                    ids[slot(i)] = ids[slot(i - 1)];
+                }
+                ids[head] = productId;
+                return;
+            }
+            head = (head - 1 + ids.length) % ids.length;
+            ids[head] = productId;
+            size = Math.min(size + 1, ids.length);
+        }
+
+        long[] newestFirst() {
+            long[] result = new long[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = ids[slot(i)];
+            }
+            return result;
+        }
+
+        private int indexOf(long productId) {
+            for (int i = 0; i < size; i++) {
+                if (ids[slot(i)] == productId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private int slot(int index) {
+            return (head + index) % ids.length;
+        }
+    }
+
+    public RecentlyViewedStore(RecentlyViewedRepository recentlyViewedRepository,
+                               JdbcTemplate jdbcTemplate,
+                               @Value("${catalog.recently-viewed.size:20}") int ringSize,
+                               @Value("${catalog.recently-viewed.max-users:10000}") int maxUsers,
+                               @Value("${catalog.recently-viewed.queue-capacity:10000}") int queueCapacity) {
+        this.recentlyViewedRepository = recentlyViewedRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.ringSize = ringSize;
+        this.pendingViews = new ArrayBlockingQueue<>(queueCapacity);
+        this.rings = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Ring> eldest) {
+                if (size() <= maxUsers) {
+                    return false;
+                }
+                // Keep unsaved views of idle users until the next flush writes them
+                if (dirty.remove(eldest.getKey())) {
+                    evictedDirty.put(eldest.getKey(), eldest.getValue().newestFirst());
+                }
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Queues a product view without blocking; views are dropped if the drain falls behind.
+     */
+    public void record(Long userId, Long productId) {
+        if (!pendingViews.offer(new long[]{userId, productId})) {
+            droppedViews.incrementAndGet();
+        }
+    }
+
+    public List<Long> get(Long userId) {
+        long[] ids;
+        synchronized (rings) {
+            Ring ring = rings.get(userId);
+            ids = ring != null ? ring.newestFirst() : evictedDirty.get(userId);
+        }
+        if (ids == null) {
+            ids = load(List.of(userId)).getOrDefault(userId, new long[0]);
+        }
+        List<Long> productIds = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            productIds.add(id);
+        }
+        return productIds;
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.recently-viewed.drain-interval-ms:500}")
+    public void drain() {
+        List<long[]> views = new ArrayList<>();
+        pendingViews.drainTo(views);
+        if (views.isEmpty()) {
+            return;
+        }
+
+        // Users not in memory are read back in one query before their new views are applied
+        Set<Long> missing = new HashSet<>();
+        synchronized (rings) {
+            for (long[] view : views) {
+                if (!rings.containsKey(view[0]) && !evictedDirty.containsKey(view[0])) {
+                    missing.add(view[0]);
+                }
+            }
+        }
+        Map<Long, long[]> loaded = missing.isEmpty() ? Map.of() : load(missing);
+
+        synchronized (rings) {
+            for (long[] view : views) {
+                Long userId = view[0];
+                Ring ring = rings.get(userId);
+                if (ring == null) {
+                    long[] previous = evictedDirty.remove(userId);
+                    if (previous == null && !missing.contains(userId)) {
+                        // Evicted clean since the check above; requeue rather than overwrite the saved list
+                        record(userId, view[1]);
+                        continue;
+                    }
+                    ring = restore(previous != null ? previous : loaded.get(userId));
+                    rings.put(userId, ring);
+                }
+                ring.push(view[1]);
+                dirty.add(userId);
+            }
+        }
+        long dropped = droppedViews.getAndSet(0);
+        if (dropped > 0) {
+            log.warn("Dropped {} recently viewed events; the queue was full", dropped);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.recently-viewed.flush-interval-ms:30000}")
+    public void flush() {
+        Map<Long, long[]> changed = new HashMap<>();
+        synchronized (rings) {
+            changed.putAll(evictedDirty);
+            evictedDirty.clear();
+            for (Long userId : dirty) {
+                changed.put(userId, rings.get(userId).newestFirst());
+            }
+            dirty.clear();
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(changed.size());
+        changed.forEach((userId, ids) -> rows.add(new Object[]{userId, encode(ids), now}));
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+            log.debug("Flushed recently viewed products for {} users", rows.size());
+        } catch (Exception e) {
+            log.error("Failed to flush recently viewed products for {} users", rows.size(), e);
+            // Retry on the next flush unless the user has moved on since
+            synchronized (rings) {
+                changed.forEach((userId, ids) -> {
+                    if (rings.containsKey(userId)) {
+                        dirty.add(userId);
+                    } else {
+                        evictedDirty.putIfAbsent(userId, ids);
+                    }
+                });
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        drain();
+        flush();
+    }
+
+    private Map<Long, long[]> load(Collection<Long> userIds) {
+        Map<Long, long[]> loaded = new HashMap<>();
+        try {
+            for (RecentlyViewed row : recentlyViewedRepository.findAllById(userIds)) {
+                loaded.put(row.getUserId(), decode(row.getProductIds()));
+            }
+        } catch (Exception e) {
+            log.warn("Failed to load recently viewed products for {} users", userIds.size(), e);
+        }
+        return loaded;
+    }
+
+    private Ring restore(long[] newestFirst) {
+        Ring ring = new Ring(ringSize);
+        if (newestFirst != null) {
+            for (int i = Math.min(newestFirst.length, ringSize) - 1; i >= 0; i--) {
+                ring.push(newestFirst[i]);
+            }
+        }
+        return ring;
+    }
+
+    private static String encode(long[] ids) {
+        StringBuilder builder = new StringBuilder();
+        for (long id : ids) {
+            if (builder.length() > 0) {
+                builder.append(',');
+            }
+            builder.append(id);
+        }
+        return builder.toString();
+    }
+
+    private static long[] decode(String value) {
+        if (value == null || value.isBlank()) {
+            return new long[0];
+        }
+        String[] parts = value.split(",");
+        long[] ids = new long[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            ids[i] = Long.parseLong(parts[i].trim());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,179 @@
+package com.jewelryshop.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jewelryshop.dto.CacheStatsResponse;
+import com.jewelryshop.event.CategoryChangedEvent;
+import com.jewelryshop.event.ProductChangedEvent;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Holds fully rendered JSON bodies for the hottest catalog endpoints, both as-is and
+ * gzipped, so a hit skips Jackson and compression and goes straight to the output stream.
+ * Entries remember which products they contain and are evicted by change events.
+ */
+@Component
+@Slf4j
+public class RenderedResponseCache {
+
+    private final BoundedTtlCache<String, Rendered> cache;
+    private final ObjectMapper objectMapper;
+
+    private static class Rendered {
+        private final byte[] identity;
+        private final byte[] gzip;
+        private final Set<Long> productIds;
+        private final boolean listing;
+        private final String surrogateKeys;
+
+        Rendered(byte[] identity, byte[] gzip, Set<Long> productIds, boolean listing, String surrogateKeys) {
+            this.identity = identity;
+            this.gzip = gzip;
+            this.productIds = productIds;
+            this.listing = listing;
+            this.surrogateKeys = surrogateKeys;
+        }
+    }
+
+    /**
+     * What a controller hands over on a miss: the response body plus the products it contains.
+     */
+    public static class Payload {
+        private final Object body;
+        private final Set<Long> productIds;
+        private final boolean listing;
+        private final List<String> surrogateKeys;
+
+        private Payload(Object body, Set<Long> productIds, boolean listing, List<String> surrogateKeys) {
+            this.body = body;
+            this.productIds = productIds;
+            this.listing = listing;
+            this.surrogateKeys = surrogateKeys;
+        }
+
+        public static Payload listing(Object body, Long categoryId, Collection<Long> productIds) {
+            return new Payload(body, new HashSet<>(productIds), true,
+                    CatalogHttpCache.productListKeys(categoryId, productIds));
+        }
+
+        public static Payload product(Object body, Long productId, Long categoryId) {
+            return new Payload(body, Set.of(productId), false,
+                    CatalogHttpCache.productDetailKeys(productId, categoryId));
+        }
+    }
+
+    public RenderedResponseCache(ObjectMapper objectMapper,
+                                 @Value("${catalog.cache.rendered.max-size:200}") int maxSize,
+                                 @Value("${catalog.cache.rendered.ttl-seconds:300}") long ttlSeconds) {
+        this.objectMapper = objectMapper;
+        this.cache = new BoundedTtlCache<>("rendered-response", maxSize, ttlSeconds * 1000);
+    }
+
+    // Writes the cached body for key, rendering and caching it first on a miss
+    public void write(WebRequest request, String key, Supplier<Payload> loader) {
+        Rendered rendered = cache.getOrLoad(key, () -> render(loader.get()));
+
+        HttpServletResponse response = ((NativeWebRequest) request).getNativeResponse(HttpServletResponse.class);
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        byte[] bytes = gzip ? rendered.gzip : rendered.identity;
+
+        CatalogHttpCache.applyPendingHeaders(((NativeWebRequest) request).getNativeRequest(HttpServletRequest.class), response);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        if (!rendered.surrogateKeys.isEmpty()) {
+            response.setHeader(CatalogHttpCache.SURROGATE_KEY, rendered.surrogateKeys);
+        }
+        response.setContentLength(bytes.length);
+        try {
+            OutputStream out = response.getOutputStream();
+            out.write(bytes);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write cached response for " + key, e);
+        }
+    }
+
+    // Stock and rating changes only touch responses that contain the product; detail changes
+    // can also move it in or out of any listing
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(ProductDetailCache.EVICTION_ORDER + 1)
+    public void onProductChanged(ProductChangedEvent event) {
+        Long productId = event.getProductId();
+        boolean detailsChange = event.isDetailsChange();
+        cache.invalidateEntriesIf((key, rendered) ->
+                rendered.productIds.contains(productId) || (detailsChange && rendered.listing));
+        log.debug("Evicted rendered responses for product {} ({})", productId, event.getType());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(ProductDetailCache.EVICTION_ORDER + 1)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        cache.invalidateAll();
+        log.debug("Cleared rendered responses after category {} change ({})", event.getCategoryId(), event.getType());
+    }
+
+    public CacheStatsResponse stats() {
+        return cache.stats();
+    }
+
+    private Rendered render(Payload payload) {
+        try {
+            byte[] identity = objectMapper.writeValueAsBytes(payload.body);
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(identity.length / 4, 64));
+            try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+                gzip.write(identity);
+            }
+            return new Rendered(identity, buffer.toByteArray(), payload.productIds, payload.listing,
+                    String.join(" ", payload.surrogateKeys));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize catalog response", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compress catalog response", e);
+        }
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.trim().split(";");
+            if (!parts[0].trim().equalsIgnoreCase("gzip")) {
+                continue;
+            }
+            // Honour an explicit "gzip;q=0"
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=") && param.substring(2).matches("0(\\.0*)?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
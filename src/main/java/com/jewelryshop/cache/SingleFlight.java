@@ -0,0 +1,90 @@
+package com.jewelryshop.cache;
+
+import com.jewelryshop.dto.CoalescingStatsResponse;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Collapses concurrent calls with the same key into one execution: the first caller
+ * runs the supplier, callers arriving while it is in flight wait for and share its result.
+ */
+public class SingleFlight<K> {
+
+    // Caps the per-key metrics map; calls beyond it are counted under OTHER_KEY
+    private static final int MAX_TRACKED_KEYS = 1000;
+    private static final String OTHER_KEY = "(other)";
+
+    private final Map<K, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, KeyStats> stats = new ConcurrentHashMap<>();
+
+    private static class KeyStats {
+        private final AtomicLong executions = new AtomicLong();
+        private final AtomicLong collapsed = new AtomicLong();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> V execute(K key, Supplier<V> supplier) {
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            statsFor(key).collapsed.incrementAndGet();
+            return (V) await(existing);
+        }
+
+        statsFor(key).executions.incrementAndGet();
+        try {
+            V result = supplier.get();
+            call.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    public List<CoalescingStatsResponse> stats(int limit) {
+        return stats.entrySet().stream()
+                .map(entry -> new CoalescingStatsResponse(entry.getKey(),
+                        entry.getValue().executions.get(), entry.getValue().collapsed.get()))
+                .sorted(Comparator.comparing(CoalescingStatsResponse::getCollapsed).reversed())
+                .limit(Math.max(limit, 0))
+                .collect(Collectors.toList());
+    }
+
+    private KeyStats statsFor(K key) {
+        String name = String.valueOf(key);
+        KeyStats keyStats = stats.get(name);
+        if (keyStats != null) {
+            return keyStats;
+        }
+        if (stats.size() >= MAX_TRACKED_KEYS) {
+            name = OTHER_KEY;
+        }
+        return stats.computeIfAbsent(name, k -> new KeyStats());
+    }
+
+    private static Object await(CompletableFuture<Object> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            // Waiters see the same exception as the caller that ran the query
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.jewelryshop.config;
+
+import com.jewelryshop.repository.ProductRepository;
+import com.jewelryshop.service.ProductSalesRankingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSortKeyBackfill implements CommandLineRunner {
+
+    private final ProductRepository productRepository;
+    private final ProductSalesRankingService productSalesRankingService;
+
+    @Override
+    public void run(String... args) {
+        // Products that predate the sort key columns have them null
+        if (productRepository.countMissingSortKeys() > 0) {
+            log.info("🔄 Backfilling product sort keys...");
+            int products = productSalesRankingService.rebuildSortKeys();
+            log.info("✅ Sort keys backfilled for {} products", products);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.jewelryshop.config;
+
+import com.jewelryshop.repository.ProductRatingSummaryRepository;
+import com.jewelryshop.repository.ReviewRepository;
+import com.jewelryshop.service.ProductRatingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RatingSummaryBackfill implements CommandLineRunner {
+
+    private final ProductRatingSummaryRepository summaryRepository;
+    private final ReviewRepository reviewRepository;
+    private final ProductRatingService productRatingService;
+
+    @Override
+    public void run(String... args) {
+        // Existing databases have reviews but no summaries yet
+        if (summaryRepository.count() == 0 && reviewRepository.count() > 0) {
+            log.info("🔄 Backfilling product rating summaries...");
+            int products = productRatingService.rebuildSummaries();
+            log.info("✅ Rating summaries backfilled for {} products", products);
+        }
+    }
+}
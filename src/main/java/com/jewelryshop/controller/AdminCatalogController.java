@@ -0,0 +1,192 @@
+package com.jewelryshop.controller;
+
+import com.jewelryshop.cache.MappedProductStore;
+import com.jewelryshop.cache.ProductDetailCache;
+import com.jewelryshop.cache.RenderedResponseCache;
+import com.jewelryshop.dto.ApiResponse;
+import com.jewelryshop.dto.CacheStatsResponse;
+import com.jewelryshop.dto.CoalescingStatsResponse;
+import com.jewelryshop.dto.ReadModelStatsResponse;
+import com.jewelryshop.dto.SearchBackendStatsResponse;
+import com.jewelryshop.dto.SearchComparisonResponse;
+import com.jewelryshop.dto.SearchQueryStatsResponse;
+import com.jewelryshop.search.SearchAnalytics;
+import com.jewelryshop.search.SearchBackendRouter;
+import com.jewelryshop.exception.BadRequestException;
+import com.jewelryshop.service.CategoryService;
+import com.jewelryshop.service.ProductFeedService;
+import com.jewelryshop.service.ProductRatingService;
+import com.jewelryshop.service.ProductSalesRankingService;
+import com.jewelryshop.service.impl.CoalescingProductService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/catalog")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+@Tag(name = "Admin - Catalog", description = "Catalog maintenance APIs")
+public class AdminCatalogController {
+
+    private final ProductRatingService productRatingService;
+    private final ProductSalesRankingService productSalesRankingService;
+    private final CategoryService categoryService;
+    private final ProductDetailCache productDetailCache;
+    private final CoalescingProductService coalescingProductService;
+    private final RenderedResponseCache renderedResponseCache;
+    private final SearchBackendRouter searchBackendRouter;
+    private final MappedProductStore mappedProductStore;
+    private final SearchAnalytics searchAnalytics;
+    private final ProductFeedService productFeedService;
+
+    @PostMapping("/rating-summaries/rebuild")
+    @Operation(summary = "Rebuild product rating summaries from reviews (Admin)")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> rebuildRatingSummaries() {
+        int products = productRatingService.rebuildSummaries();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("productsSummarized", products);
+        return ResponseEntity.ok(ApiResponse.success("Rating summaries rebuilt successfully", response));
+    }
+
+    @PostMapping("/sort-keys/rebuild")
+    @Operation(summary = "Rebuild product rating, sales and popularity sort keys (Admin)")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> rebuildSortKeys() {
+        int products = productSalesRankingService.rebuildSortKeys();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("productsUpdated", products);
+        return ResponseEntity.ok(ApiResponse.success("Sort keys rebuilt successfully", response));
+    }
+
+    @PostMapping("/category-closure/rebuild")
+    @Operation(summary = "Rebuild the category closure table from category parents (Admin)")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> rebuildCategoryClosure() {
+        int links = categoryService.rebuildClosure();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("closureLinks", links);
+        return ResponseEntity.ok(ApiResponse.success("Category closure rebuilt successfully", response));
+    }
+
+    @GetMapping("/cache-stats")
+    @Operation(summary = "Get product detail cache statistics (Admin)")
+    public ResponseEntity<ApiResponse<CacheStatsResponse>> getCacheStats() {
+        return ResponseEntity.ok(ApiResponse.success(productDetailCache.stats()));
+    }
+
+    @GetMapping("/rendered-cache-stats")
+    @Operation(summary = "Get pre-rendered response cache statistics (Admin)")
+    public ResponseEntity<ApiResponse<CacheStatsResponse>> getRenderedCacheStats() {
+        return ResponseEntity.ok(ApiResponse.success(renderedResponseCache.stats()));
+    }
+
+    @GetMapping("/read-model-stats")
+    @Operation(summary = "Get memory-mapped product read model statistics (Admin)")
+    public ResponseEntity<ApiResponse<ReadModelStatsResponse>> getReadModelStats() {
+        return ResponseEntity.ok(ApiResponse.success(mappedProductStore.stats()));
+    }
+
+    @GetMapping("/coalescing-stats")
+    @Operation(summary = "Get per-query request coalescing statistics (Admin)")
+    public ResponseEntity<ApiResponse<List<CoalescingStatsResponse>>> getCoalescingStats(
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(ApiResponse.success(coalescingProductService.getCoalescingStats(limit)));
+    }
+
+    @GetMapping("/search-backends")
+    @Operation(summary = "Get query latency statistics per search backend (Admin)")
+    public ResponseEntity<ApiResponse<List<SearchBackendStatsResponse>>> getSearchBackendStats() {
+        return ResponseEntity.ok(ApiResponse.success(searchBackendRouter.stats()));
+    }
+
+    @GetMapping("/search-backends/compare")
+    @Operation(summary = "Run a query against every search backend and compare results (Admin)")
+    public ResponseEntity<ApiResponse<List<SearchComparisonResponse>>> compareSearchBackends(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(ApiResponse.success(searchBackendRouter.compare(q, Math.max(limit, 1))));
+    }
+
+    @GetMapping("/search-queries/top")
+    @Operation(summary = "Most frequent search queries over the last hours (Admin)")
+    public ResponseEntity<ApiResponse<List<SearchQueryStatsResponse>>> getTopSearchQueries(
+            @RequestParam(defaultValue = "24") int hours,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(ApiResponse.success(searchAnalytics.topQueries(hours, Math.max(limit, 1))));
+    }
+
+    @GetMapping("/search-queries/zero-results")
+    @Operation(summary = "Search queries that most often returned no products (Admin)")
+    public ResponseEntity<ApiResponse<List<SearchQueryStatsResponse>>> getZeroResultSearchQueries(
+            @RequestParam(defaultValue = "24") int hours,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(ApiResponse.success(searchAnalytics.zeroResultQueries(hours, Math.max(limit, 1))));
+    }
+
+    @GetMapping("/search-queries/slowest")
+    @Operation(summary = "Search queries with the highest average latency (Admin)")
+    public ResponseEntity<ApiResponse<List<SearchQueryStatsResponse>>> getSlowestSearchQueries(
+            @RequestParam(defaultValue = "24") int hours,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "3") long minSearches) {
+        return ResponseEntity.ok(ApiResponse.success(
+                searchAnalytics.slowestQueries(hours, Math.max(limit, 1), minSearches)));
+    }
+
+    @GetMapping("/feed")
+    @Operation(summary = "Stream every active product as CSV, JSON Lines or one page of the XML sitemap (Admin)")
+    public ResponseEntity<StreamingResponseBody> exportProductFeed(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "0") int page) {
+        ProductFeedService.Format feedFormat;
+        try {
+            feedFormat = ProductFeedService.Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unsupported feed format: " + format + " (expected csv, jsonl or sitemap)");
+        }
+
+        if (feedFormat == ProductFeedService.Format.SITEMAP) {
+            // A sitemap file holds at most 50,000 URLs; larger catalogs are split into pages
+            int pages = productFeedService.countSitemapPages();
+            if (page < 0 || page >= pages) {
+                throw new BadRequestException("Sitemap page must be between 0 and " + (pages - 1));
+            }
+            StreamingResponseBody body = out -> productFeedService.writeSitemap(page, out);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(feedFormat.getContentType() + ";charset=UTF-8"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            "attachment; filename=\"" + ProductFeedService.sitemapFileName(page) + "\"")
+                    .body(body);
+        }
+
+        StreamingResponseBody body = out -> productFeedService.writeFeed(feedFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(feedFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"products." + feedFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    @GetMapping("/feed/sitemap-index")
+    @Operation(summary = "Sitemap index listing every page of the product sitemap (Admin)")
+    public ResponseEntity<StreamingResponseBody> exportSitemapIndex() {
+        StreamingResponseBody body = productFeedService::writeSitemapIndex;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/xml;charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"sitemap-index.xml\"")
+                .body(body);
+    }
+}
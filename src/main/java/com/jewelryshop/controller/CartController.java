@@ -3,6 +3,7 @@ package com.jewelryshop.controller;
 import com.jewelryshop.dto.*;
 import com.jewelryshop.security.CustomUserDetails;
 import com.jewelryshop.service.CartService;
+import com.jewelryshop.service.ProductRecommendationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -11,6 +12,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/cart")
 @RequiredArgsConstructor
@@ -18,6 +21,7 @@ import org.springframework.web.bind.annotation.*;
 public class CartController {
 
     private final CartService cartService;
+    private final ProductRecommendationService productRecommendationService;
 
     @GetMapping
     @Operation(summary = "Get user cart")
@@ -27,6 +31,16 @@ public class CartController {
         return ResponseEntity.ok(ApiResponse.success(cart));
     }
 
+    @GetMapping("/recommendations")
+    @Operation(summary = "Get products frequently bought together with the cart contents")
+    public ResponseEntity<ApiResponse<List<ProductResponse>>> getCartRecommendations(
+            Authentication authentication,
+            @RequestParam(defaultValue = "8") int limit) {
+        CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
+        List<ProductResponse> products = productRecommendationService.getBoughtTogetherForCart(userDetails.getId(), limit);
+        return ResponseEntity.ok(ApiResponse.success(products));
+    }
+
     @PostMapping("/add")
     @Operation(summary = "Add item to cart")
     public ResponseEntity<ApiResponse<CartResponse>> addToCart(
@@ -1,5 +1,7 @@
 package com.jewelryshop.controller;
 
+import com.jewelryshop.cache.CatalogHttpCache;
+import com.jewelryshop.cache.CatalogVersions;
 import com.jewelryshop.dto.ApiResponse;
 import com.jewelryshop.dto.CategoryRequest;
 import com.jewelryshop.dto.CategoryResponse;
@@ -12,6 +14,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -22,18 +25,30 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final CatalogVersions catalogVersions;
+    private final CatalogHttpCache catalogHttpCache;
 
     @GetMapping("/categories")
     @Operation(summary = "Get all categories")
-    public ResponseEntity<ApiResponse<List<CategoryResponse>>> getAllCategories() {
+    public ResponseEntity<ApiResponse<List<CategoryResponse>>> getAllCategories(WebRequest webRequest) {
+        if (notModified(webRequest)) {
+            return null;
+        }
+
         List<CategoryResponse> categories = categoryService.getAllCategories();
+        catalogHttpCache.surrogateKeys(webRequest, List.of(CatalogHttpCache.CATEGORIES_KEY));
         return ResponseEntity.ok(ApiResponse.success(categories));
     }
 
     @GetMapping("/categories/{id}")
     @Operation(summary = "Get category by ID")
-    public ResponseEntity<ApiResponse<CategoryResponse>> getCategoryById(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<CategoryResponse>> getCategoryById(@PathVariable Long id, WebRequest webRequest) {
+        if (notModified(webRequest)) {
+            return null;
+        }
+
         CategoryResponse category = categoryService.getCategoryById(id);
+        catalogHttpCache.surrogateKeys(webRequest, List.of(CatalogHttpCache.CATEGORIES_KEY, CatalogHttpCache.categoryKey(id)));
         return ResponseEntity.ok(ApiResponse.success(category));
     }
 
@@ -64,4 +79,10 @@ public class CategoryController {
         categoryService.deleteCategory(id);
         return ResponseEntity.ok(ApiResponse.success("Category deleted successfully", null));
     }
+
+    // Category responses carry product counts, so they follow the category tree version
+    private boolean notModified(WebRequest webRequest) {
+        return catalogHttpCache.checkNotModified(webRequest, "categories",
+                catalogVersions.categoryTreeEtag(), catalogVersions.categoryTreeVersion());
+    }
 }
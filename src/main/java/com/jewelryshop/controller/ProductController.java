@@ -1,10 +1,25 @@
 package com.jewelryshop.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jewelryshop.cache.CatalogHttpCache;
+import com.jewelryshop.cache.CatalogVersions;
+import com.jewelryshop.cache.RecentlyViewedStore;
+import com.jewelryshop.cache.RenderedResponseCache;
+import com.jewelryshop.search.TrendingProducts;
 import com.jewelryshop.dto.ApiResponse;
+import com.jewelryshop.dto.CatalogFacetsResponse;
+import com.jewelryshop.dto.CursorPage;
+import com.jewelryshop.dto.PageEnvelope;
+import com.jewelryshop.dto.ProductBatchItem;
 import com.jewelryshop.dto.ProductRequest;
 import com.jewelryshop.dto.ProductResponse;
+import com.jewelryshop.dto.ProductSummaryResponse;
+import com.jewelryshop.dto.SuggestionResponse;
+import com.jewelryshop.security.CustomUserDetails;
+import com.jewelryshop.service.ProductRecommendationService;
 import com.jewelryshop.service.ProductService;
 import com.jewelryshop.service.FileUploadService;
+import com.jewelryshop.util.SparseFieldset;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -16,11 +31,16 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api")
@@ -30,7 +50,14 @@ import java.util.Map;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductRecommendationService productRecommendationService;
     private final FileUploadService fileUploadService;
+    private final ObjectMapper objectMapper;
+    private final CatalogVersions catalogVersions;
+    private final CatalogHttpCache catalogHttpCache;
+    private final RenderedResponseCache renderedResponseCache;
+    private final RecentlyViewedStore recentlyViewedStore;
+    private final TrendingProducts trendingProducts;
 
     @GetMapping("/products")
     @Operation(summary = "Get all products with filters")
@@ -41,22 +68,184 @@ public class ProductController {
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) Double minPrice,
             @RequestParam(required = false) Double maxPrice,
-            @RequestParam(defaultValue = "newest") String sortBy) {
-        
+            @RequestParam(defaultValue = "newest") String sortBy,
+            WebRequest webRequest) {
+        if (notModified(webRequest, "products")) {
+            return null;
+        }
+
         log.info("Fetching products - page: {}, size: {}, search: {}, categoryId: {}, minPrice: {}, maxPrice: {}, sortBy: {}",
                 page, size, search, categoryId, minPrice, maxPrice, sortBy);
         
         Pageable pageable = PageRequest.of(page, size);
         Page<ProductResponse> products = productService.getAllProductsWithFilters(
                 search, categoryId, minPrice, maxPrice, sortBy, pageable);
+        catalogHttpCache.tagProducts(webRequest, categoryId, productIds(products.getContent()));
+        return ResponseEntity.ok(ApiResponse.success(products));
+    }
+
+    @GetMapping("/products/summaries")
+    @Operation(summary = "Get lean product summaries for listing pages")
+    public ResponseEntity<ApiResponse<PageEnvelope<?>>> getProductSummaries(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "12") int size,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(defaultValue = "newest") String sortBy,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        if (notModified(webRequest, "summaries")) {
+            return null;
+        }
+
+        Pageable pageable = PageRequest.of(page, size);
+
+        if (fields == null || fields.isBlank()) {
+            Page<ProductSummaryResponse> summaries = productService.getProductSummaries(
+                    search, categoryId, minPrice, maxPrice, sortBy, pageable);
+            catalogHttpCache.tagProducts(webRequest, categoryId, summaries.getContent().stream()
+                    .map(ProductSummaryResponse::getId)
+                    .collect(Collectors.toList()));
+            return ResponseEntity.ok(ApiResponse.success(PageEnvelope.of(summaries)));
+        }
+
+        // Sparse fieldset: run the full mapping and return only the requested properties
+        Set<String> selected = SparseFieldset.parse(fields, ProductResponse.class);
+        Page<ProductResponse> products = productService.getAllProductsWithFilters(
+                search, categoryId, minPrice, maxPrice, sortBy, pageable);
+        catalogHttpCache.tagProducts(webRequest, categoryId, productIds(products.getContent()));
+        Page<Map<String, Object>> trimmed = products.map(product -> SparseFieldset.select(objectMapper, product, selected));
+        return ResponseEntity.ok(ApiResponse.success(PageEnvelope.of(trimmed)));
+    }
+
+    @GetMapping("/products/scroll")
+    @Operation(summary = "Get products with filters using cursor pagination",
+            description = "With a search term, only the 1000 best matching products are scrolled through")
+    public ResponseEntity<ApiResponse<CursorPage<ProductResponse>>> scrollProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "12") int size,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(defaultValue = "newest") String sortBy,
+            WebRequest webRequest) {
+        if (notModified(webRequest, "scroll")) {
+            return null;
+        }
+
+        CursorPage<ProductResponse> products = productService.scrollProductsWithFilters(
+                search, categoryId, minPrice, maxPrice, sortBy, cursor, size);
+        catalogHttpCache.tagProducts(webRequest, categoryId, productIds(products.getContent()));
+        return ResponseEntity.ok(ApiResponse.success(products));
+    }
+
+    @GetMapping("/products/facets")
+    @Operation(summary = "Get price histogram, category and stock counts for a product filter set")
+    public ResponseEntity<ApiResponse<CatalogFacetsResponse>> getProductFacets(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(defaultValue = "10") int buckets,
+            WebRequest webRequest) {
+        if (notModified(webRequest, "facets")) {
+            return null;
+        }
+
+        CatalogFacetsResponse facets = productService.getProductFacets(search, categoryId, minPrice, maxPrice, buckets);
+        return ResponseEntity.ok(ApiResponse.success(facets));
+    }
+
+    @GetMapping("/products/batch")
+    @Operation(summary = "Get several products by ID, in request order")
+    public ResponseEntity<ApiResponse<List<ProductBatchItem>>> getProductsByIds(
+            @RequestParam List<Long> ids,
+            WebRequest webRequest) {
+        if (notModified(webRequest, "batch")) {
+            return null;
+        }
+
+        List<ProductBatchItem> items = productService.getProductsByIds(ids);
+        catalogHttpCache.tagProducts(webRequest, null, items.stream()
+                .filter(item -> item.getStatus() == ProductBatchItem.Status.FOUND)
+                .map(ProductBatchItem::getId)
+                .collect(Collectors.toList()));
+        return ResponseEntity.ok(ApiResponse.success(items));
+    }
+
+    @GetMapping("/products/trending")
+    @Operation(summary = "Get products trending over the last few hours")
+    public ResponseEntity<ApiResponse<List<ProductResponse>>> getTrendingProducts(
+            @RequestParam(defaultValue = "10") int limit,
+            WebRequest webRequest) {
+        // Versioned by the top-k snapshot rather than the catalog
+        long refreshedAt = trendingProducts.getRefreshedAt();
+        if (catalogHttpCache.checkNotModified(webRequest, "trending", "t-" + Long.toHexString(refreshedAt), refreshedAt)) {
+            return null;
+        }
+
+        List<ProductResponse> products = productRecommendationService.getTrending(limit);
+        catalogHttpCache.tagProducts(webRequest, null, productIds(products));
         return ResponseEntity.ok(ApiResponse.success(products));
     }
 
     @GetMapping("/products/{id}")
     @Operation(summary = "Get product by ID")
-    public ResponseEntity<ApiResponse<ProductResponse>> getProductById(@PathVariable Long id) {
-        ProductResponse product = productService.getProductById(id);
-        return ResponseEntity.ok(ApiResponse.success(product));
+    public ResponseEntity<ApiResponse<ProductResponse>> getProductById(@PathVariable Long id,
+                                                                       Authentication authentication,
+                                                                       WebRequest webRequest) {
+        if (catalogHttpCache.checkNotModified(webRequest, "product-detail",
+                catalogVersions.productEtag(id), catalogVersions.productVersion(id))) {
+            return null;
+        }
+
+        renderedResponseCache.write(webRequest, "product|" + id, () -> {
+            ProductResponse product = productService.getProductById(id);
+            return RenderedResponseCache.Payload.product(ApiResponse.success(product), id, product.getCategoryId());
+        });
+
+        // Only served products count as views: unknown ids have thrown above
+        trendingProducts.recordView(id);
+        if (authentication != null && authentication.getPrincipal() instanceof CustomUserDetails userDetails) {
+            recentlyViewedStore.record(userDetails.getId(), id);
+        }
+        return null;
+    }
+
+    @GetMapping("/products/{id}/similar")
+    @Operation(summary = "Get products similar to a product")
+    public ResponseEntity<ApiResponse<List<ProductResponse>>> getSimilarProducts(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "8") int limit,
+            WebRequest webRequest) {
+        if (notModified(webRequest, "similar")) {
+            return null;
+        }
+
+        List<ProductResponse> products = productService.getSimilarProducts(id, limit);
+        List<Long> taggedIds = productIds(products);
+        taggedIds.add(id);
+        catalogHttpCache.tagProducts(webRequest, null, taggedIds);
+        return ResponseEntity.ok(ApiResponse.success(products));
+    }
+
+    // Order placement bumps the listing version through stock changes, so the listing ETag covers this too
+    @GetMapping("/products/{id}/bought-together")
+    @Operation(summary = "Get products frequently bought together with a product")
+    public ResponseEntity<ApiResponse<List<ProductResponse>>> getBoughtTogether(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "8") int limit,
+            WebRequest webRequest) {
+        if (notModified(webRequest, "bought-together")) {
+            return null;
+        }
+
+        List<ProductResponse> products = productRecommendationService.getBoughtTogether(id, limit);
+        catalogHttpCache.tagProducts(webRequest, null, productIds(products));
+        return ResponseEntity.ok(ApiResponse.success(products));
     }
 
     @GetMapping("/products/search")
@@ -64,20 +253,66 @@ public class ProductController {
     public ResponseEntity<ApiResponse<Page<ProductResponse>>> searchProducts(
             @RequestParam String keyword,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest webRequest) {
+        if (notModified(webRequest, "search")) {
+            return null;
+        }
+
         Pageable pageable = PageRequest.of(page, size);
         Page<ProductResponse> products = productService.searchProducts(keyword, pageable);
+        catalogHttpCache.tagProducts(webRequest, null, productIds(products.getContent()));
         return ResponseEntity.ok(ApiResponse.success(products));
     }
 
+    @GetMapping("/products/suggest")
+    @Operation(summary = "Get typeahead suggestions for the search box")
+    public ResponseEntity<ApiResponse<List<SuggestionResponse>>> suggestProducts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "8") int limit,
+            WebRequest webRequest) {
+        if (notModified(webRequest, "suggest")) {
+            return null;
+        }
+
+        List<SuggestionResponse> suggestions = productService.suggestProducts(q, limit);
+        return ResponseEntity.ok(ApiResponse.success(suggestions));
+    }
+
     @GetMapping("/products/category/{categoryId}")
     @Operation(summary = "Get products by category")
     public ResponseEntity<ApiResponse<Page<ProductResponse>>> getProductsByCategory(
             @PathVariable Long categoryId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest webRequest) {
+        if (notModified(webRequest, "category-products")) {
+            return null;
+        }
+
         Pageable pageable = PageRequest.of(page, size);
-        Page<ProductResponse> products = productService.getProductsByCategory(categoryId, pageable);
+        renderedResponseCache.write(webRequest, "category|" + categoryId + "|" + page + "|" + size, () -> {
+            Page<ProductResponse> products = productService.getProductsByCategory(categoryId, pageable);
+            return RenderedResponseCache.Payload.listing(ApiResponse.success(products), categoryId,
+                    productIds(products.getContent()));
+        });
+        return null;
+    }
+
+    @GetMapping("/products/category/{categoryId}/scroll")
+    @Operation(summary = "Get products by category using cursor pagination")
+    public ResponseEntity<ApiResponse<CursorPage<ProductResponse>>> scrollProductsByCategory(
+            @PathVariable Long categoryId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "newest") String sortBy,
+            WebRequest webRequest) {
+        if (notModified(webRequest, "category-products")) {
+            return null;
+        }
+
+        CursorPage<ProductResponse> products = productService.scrollProductsByCategory(categoryId, sortBy, cursor, size);
+        catalogHttpCache.tagProducts(webRequest, categoryId, productIds(products.getContent()));
         return ResponseEntity.ok(ApiResponse.success(products));
     }
 
@@ -85,11 +320,36 @@ public class ProductController {
     @Operation(summary = "Get featured products")
     public ResponseEntity<ApiResponse<Page<ProductResponse>>> getFeaturedProducts(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(required = false) Integer limit) {
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
+        if (notModified(webRequest, "featured")) {
+            return null;
+        }
+
         int size = (limit != null) ? limit : 10;
         log.info("Fetching featured products - page: {}, limit: {}", page, size);
         Pageable pageable = PageRequest.of(page, size);
-        Page<ProductResponse> products = productService.getFeaturedProducts(pageable);
+        renderedResponseCache.write(webRequest, "featured|" + page + "|" + size, () -> {
+            Page<ProductResponse> products = productService.getFeaturedProducts(pageable);
+            return RenderedResponseCache.Payload.listing(ApiResponse.success(products), null,
+                    productIds(products.getContent()));
+        });
+        return null;
+    }
+
+    @GetMapping("/products/featured/scroll")
+    @Operation(summary = "Get featured products using cursor pagination")
+    public ResponseEntity<ApiResponse<CursorPage<ProductResponse>>> scrollFeaturedProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "newest") String sortBy,
+            WebRequest webRequest) {
+        if (notModified(webRequest, "featured")) {
+            return null;
+        }
+
+        CursorPage<ProductResponse> products = productService.scrollFeaturedProducts(sortBy, cursor, size);
+        catalogHttpCache.tagProducts(webRequest, null, productIds(products.getContent()));
         return ResponseEntity.ok(ApiResponse.success(products));
     }
 
@@ -139,4 +399,16 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.success("Image uploaded successfully", response));
     }
+
+    // Listing pages share one catalog-wide version, checked before any query runs
+    private boolean notModified(WebRequest webRequest, String endpoint) {
+        return catalogHttpCache.checkNotModified(webRequest, endpoint,
+                catalogVersions.listingEtag(), catalogVersions.listingVersion());
+    }
+
+    private static List<Long> productIds(List<ProductResponse> products) {
+        return products.stream()
+                .map(ProductResponse::getId)
+                .collect(Collectors.toList());
+    }
 }
@@ -1,9 +1,11 @@
 package com.jewelryshop.controller;
 
 import com.jewelryshop.dto.ApiResponse;
+import com.jewelryshop.dto.ProductResponse;
 import com.jewelryshop.dto.UpdateUserRequest;
 import com.jewelryshop.dto.UserResponse;
 import com.jewelryshop.security.CustomUserDetails;
+import com.jewelryshop.service.ProductRecommendationService;
 import com.jewelryshop.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -16,6 +18,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/users")
 @RequiredArgsConstructor
@@ -23,6 +27,7 @@ import org.springframework.web.bind.annotation.*;
 public class UserController {
 
     private final UserService userService;
+    private final ProductRecommendationService productRecommendationService;
 
     @GetMapping("/profile")
     @Operation(summary = "Get user profile")
@@ -32,6 +37,16 @@ public class UserController {
         return ResponseEntity.ok(ApiResponse.success(userResponse));
     }
 
+    @GetMapping("/recently-viewed")
+    @Operation(summary = "Get products the user viewed most recently")
+    public ResponseEntity<ApiResponse<List<ProductResponse>>> getRecentlyViewed(
+            Authentication authentication,
+            @RequestParam(defaultValue = "20") int limit) {
+        CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
+        List<ProductResponse> products = productRecommendationService.getRecentlyViewed(userDetails.getId(), limit);
+        return ResponseEntity.ok(ApiResponse.success(products));
+    }
+
     @PutMapping("/update")
     @Operation(summary = "Update user profile")
     public ResponseEntity<ApiResponse<UserResponse>> updateUser(
@@ -0,0 +1,21 @@
+package com.jewelryshop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsResponse {
+    private String name;
+    private Integer size;
+    private Integer maxSize;
+    private Long ttlSeconds;
+    private Long hits;
+    private Long misses;
+    private Long evictions;
+    private Long expirations;
+    private Long invalidations;
+    private Double hitRate;
+}
@@ -0,0 +1,23 @@
+package com.jewelryshop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogFacetsResponse {
+    private Long totalElements;
+    private Double minEffectivePrice;
+    private Double maxEffectivePrice;
+    private List<PriceRangeCount> priceHistogram = new ArrayList<>();
+    private Map<Long, Long> categoryCounts = new LinkedHashMap<>();
+    private Long inStockCount;
+    private Long featuredCount;
+}
@@ -0,0 +1,14 @@
+package com.jewelryshop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoalescingStatsResponse {
+    private String key;
+    private Long executions;
+    private Long collapsed;
+}
@@ -0,0 +1,21 @@
+package com.jewelryshop.dto;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+// Serializes like a regular Page with an extra "facets" property
+public class FacetedPage<T> extends PageImpl<T> {
+
+    private final ProductFacets facets;
+
+    public FacetedPage(List<T> content, Pageable pageable, long total, ProductFacets facets) {
+        super(content, pageable, total);
+        this.facets = facets;
+    }
+
+    public ProductFacets getFacets() {
+        return facets;
+    }
+}
@@ -0,0 +1,27 @@
+package com.jewelryshop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Compact alternative to a serialized PageImpl, without the pageable/sort metadata
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageEnvelope<T> {
+    private List<T> content = new ArrayList<>();
+    private Integer page;
+    private Integer size;
+    private Long totalElements;
+    private Integer totalPages;
+    private Boolean hasNext;
+
+    public static <T> PageEnvelope<T> of(Page<T> page) {
+        return new PageEnvelope<>(page.getContent(), page.getNumber(), page.getSize(),
+                page.getTotalElements(), page.getTotalPages(), page.hasNext());
+    }
+}
@@ -0,0 +1,20 @@
+package com.jewelryshop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBatchItem {
+
+    public enum Status {
+        FOUND, NOT_FOUND, DELETED
+    }
+
+    private Long id;
+    private Status status;
+    // Only set when status is FOUND
+    private ProductResponse product;
+}
@@ -0,0 +1,19 @@
+package com.jewelryshop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacets {
+    private Map<Long, Long> categoryCounts = new LinkedHashMap<>();
+    private List<PriceRangeCount> priceRanges = new ArrayList<>();
+    private Long featuredCount;
+}
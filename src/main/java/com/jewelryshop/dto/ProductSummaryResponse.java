@@ -0,0 +1,43 @@
+package com.jewelryshop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSummaryResponse {
+
+    public enum StockBand {
+        IN_STOCK, LOW_STOCK, OUT_OF_STOCK
+    }
+
+    private static final int LOW_STOCK_THRESHOLD = 5;
+
+    private Long id;
+    private String name;
+    private BigDecimal price;
+    private BigDecimal effectivePrice;
+    private String primaryImageUrl;
+    private Double averageRating;
+    private Long reviewCount;
+    private StockBand stockBand;
+
+    // Used by the JPQL constructor expression in ProductRepository
+    public ProductSummaryResponse(Long id, String name, BigDecimal price, BigDecimal effectivePrice,
+                                  String primaryImageUrl, Double averageRating, Long reviewCount,
+                                  Integer stockQuantity) {
+        this(id, name, price, effectivePrice, primaryImageUrl, averageRating, reviewCount,
+                stockBandOf(stockQuantity));
+    }
+
+    public static StockBand stockBandOf(Integer stockQuantity) {
+        if (stockQuantity == null || stockQuantity <= 0) {
+            return StockBand.OUT_OF_STOCK;
+        }
+        return stockQuantity <= LOW_STOCK_THRESHOLD ? StockBand.LOW_STOCK : StockBand.IN_STOCK;
+    }
+}
@@ -0,0 +1,18 @@
+package com.jewelryshop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReadModelStatsResponse {
+    private Boolean enabled;
+    private Boolean ready;
+    // Whether the last startup reused the previous run's file
+    private Boolean warmStart;
+    private Integer liveRecords;
+    private Integer deadRecords;
+    private Long fileBytes;
+}
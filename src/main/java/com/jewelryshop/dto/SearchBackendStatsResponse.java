@@ -0,0 +1,19 @@
+package com.jewelryshop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchBackendStatsResponse {
+    private String backend;
+    private Boolean active;
+    private Boolean available;
+    private Long queries;
+    private Long errors;
+    private Double averageMillis;
+    private Double maxMillis;
+    private Double lastMillis;
+}
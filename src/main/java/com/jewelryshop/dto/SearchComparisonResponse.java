@@ -0,0 +1,19 @@
+package com.jewelryshop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchComparisonResponse {
+    private String backend;
+    private Boolean available;
+    private Integer matches;
+    private Double millis;
+    // First few ids, to eyeball ranking differences between backends
+    private List<Long> topProductIds;
+}
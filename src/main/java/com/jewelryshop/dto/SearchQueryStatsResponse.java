@@ -0,0 +1,17 @@
+package com.jewelryshop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchQueryStatsResponse {
+    private String query;
+    private Long searches;
+    private Double averageResults;
+    private Long zeroResults;
+    private Double averageLatencyMs;
+    private Double maxLatencyMs;
+}
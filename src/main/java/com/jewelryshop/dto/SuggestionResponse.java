@@ -0,0 +1,20 @@
+package com.jewelryshop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionResponse {
+
+    public enum Type {
+        PRODUCT, SKU, CATEGORY
+    }
+
+    private String text;
+    private Type type;
+    // Product id for PRODUCT and SKU suggestions, category id for CATEGORY
+    private Long id;
+}
@@ -15,7 +15,10 @@ import java.util.List;
 
 @Entity
 @Table(name = "products", indexes = {
-    @Index(name = "idx_products_category", columnList = "category_id")
+    @Index(name = "idx_products_category", columnList = "category_id"),
+    @Index(name = "idx_products_rating", columnList = "average_rating, review_count"),
+    @Index(name = "idx_products_units_sold", columnList = "units_sold"),
+    @Index(name = "idx_products_popularity", columnList = "popularity_score")
 })
 @Data
 @NoArgsConstructor
@@ -55,6 +58,20 @@ public class Product {
     @Column(name = "is_featured")
     private Boolean isFeatured = false;
 
+    // Denormalized sort keys, written only by bulk updates in ProductRepository
+    @Column(name = "average_rating", updatable = false)
+    private Double averageRating = 0.0;
+
+    @Column(name = "review_count", updatable = false)
+    private Long reviewCount = 0L;
+
+    @Column(name = "units_sold", updatable = false)
+    private Long unitsSold = 0L;
+
+    // Forward-decayed sales in log space, see PopularityScore
+    @Column(name = "popularity_score", updatable = false)
+    private Double popularityScore;
+
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ProductImage> images = new ArrayList<>();
 
@@ -0,0 +1,28 @@
+package com.jewelryshop.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Written in batches by RecentlyViewedStore, which upserts rows directly
+@Entity
+@Table(name = "recently_viewed")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecentlyViewed {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    // Comma-separated product ids, most recent first
+    @Column(name = "product_ids", nullable = false, length = 1000)
+    private String productIds;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
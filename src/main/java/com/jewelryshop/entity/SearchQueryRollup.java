@@ -0,0 +1,46 @@
+package com.jewelryshop.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Hourly search totals per normalized query, upserted in batches by SearchAnalytics
+@Entity
+@Table(name = "search_query_rollups", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_search_rollups_query_bucket", columnNames = {"query_text", "bucket_start"})
+}, indexes = {
+    @Index(name = "idx_search_rollups_bucket", columnList = "bucket_start")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchQueryRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "query_text", nullable = false, length = 100)
+    private String queryText;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "searches", nullable = false)
+    private Long searches = 0L;
+
+    @Column(name = "total_results", nullable = false)
+    private Long totalResults = 0L;
+
+    @Column(name = "zero_results", nullable = false)
+    private Long zeroResults = 0L;
+
+    @Column(name = "total_latency_ms", nullable = false)
+    private Double totalLatencyMs = 0.0;
+
+    @Column(name = "max_latency_ms", nullable = false)
+    private Double maxLatencyMs = 0.0;
+}
@@ -0,0 +1,28 @@
+package com.jewelryshop.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Checkpoint of TrendingProducts counters, upserted in batches
+@Entity
+@Table(name = "trending_counters")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingCounter {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    // Forward-decayed activity in log space, see TrendingProducts
+    @Column(name = "score", nullable = false)
+    private Double score;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,16 @@
+package com.jewelryshop.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@ToString
+public class OrderPlacedEvent {
+
+    private final Long orderId;
+    private final List<Long> productIds;
+}
@@ -0,0 +1,42 @@
+package com.jewelryshop.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@AllArgsConstructor
+@ToString
+public class ProductChangedEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED, STOCK_CHANGED, RATING_CHANGED
+    }
+
+    private final Long productId;
+    private final Type type;
+    // Set on updates that moved the product to another category
+    private final boolean categoryMoved;
+
+    public ProductChangedEvent(Long productId, Type type) {
+        this(productId, type, false);
+    }
+
+    // True when the product's own fields changed, as opposed to stock or review aggregates
+    public boolean isDetailsChange() {
+        return type == Type.CREATED || type == Type.UPDATED || type == Type.DELETED;
+    }
+
+    // True when a category's product count changed
+    public boolean isCategoryCountChange() {
+        return type == Type.CREATED || type == Type.DELETED || categoryMoved;
+    }
+
+    public boolean isStockChange() {
+        return type == Type.STOCK_CHANGED;
+    }
+
+    public boolean isRatingChange() {
+        return type == Type.RATING_CHANGED;
+    }
+}
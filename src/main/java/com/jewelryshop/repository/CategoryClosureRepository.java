@@ -0,0 +1,47 @@
+package com.jewelryshop.repository;
+
+import com.jewelryshop.entity.CategoryClosure;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CategoryClosureRepository extends JpaRepository<CategoryClosure, Long> {
+
+    boolean existsByAncestorIdAndDescendantId(Long ancestorId, Long descendantId);
+
+    @Query("SELECT cc.descendantId FROM CategoryClosure cc WHERE cc.ancestorId = :ancestorId")
+    List<Long> findDescendantIds(@Param("ancestorId") Long ancestorId);
+
+    @Query("SELECT COUNT(cc) FROM CategoryClosure cc WHERE cc.depth = 0")
+    long countSelfLinks();
+
+    // Links a new leaf under every ancestor of its parent
+    @Modifying
+    @Query(value = "INSERT INTO category_closure (ancestor_id, descendant_id, depth) " +
+                   "SELECT cc.ancestor_id, :categoryId, cc.depth + 1 FROM category_closure cc " +
+                   "WHERE cc.descendant_id = :parentId", nativeQuery = true)
+    void insertLinksUnder(@Param("categoryId") Long categoryId, @Param("parentId") Long parentId);
+
+    // Cuts a subtree loose: drops every link into it from outside
+    @Modifying
+    @Query("DELETE FROM CategoryClosure cc WHERE cc.descendantId IN :subtreeIds AND cc.ancestorId NOT IN :subtreeIds")
+    void detachSubtree(@Param("subtreeIds") Collection<Long> subtreeIds);
+
+    // Links every node of a detached subtree under every ancestor of its new parent
+    @Modifying
+    @Query(value = "INSERT INTO category_closure (ancestor_id, descendant_id, depth) " +
+                   "SELECT above.ancestor_id, sub.descendant_id, above.depth + sub.depth + 1 " +
+                   "FROM category_closure above JOIN category_closure sub " +
+                   "WHERE above.descendant_id = :parentId AND sub.ancestor_id = :categoryId", nativeQuery = true)
+    void attachSubtree(@Param("categoryId") Long categoryId, @Param("parentId") Long parentId);
+
+    @Modifying
+    @Query("DELETE FROM CategoryClosure cc WHERE cc.descendantId IN :subtreeIds")
+    void deleteSubtree(@Param("subtreeIds") Collection<Long> subtreeIds);
+}
@@ -20,5 +20,18 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     @Query("SELECT c FROM Category c LEFT JOIN FETCH c.subCategories WHERE c.parent IS NULL")
     List<Category> findAllCategoriesWithSubCategories();
 
+    @Query("SELECT c.id, c.name, COUNT(p) FROM Category c LEFT JOIN Product p ON p.category = c " +
+           "AND p.deletedAt IS NULL AND p.isActive = true GROUP BY c.id, c.name")
+    List<Object[]> findSuggestionDocuments();
+
+    // Every category with its parent and direct product count, for CategoryTreeSnapshot
+    @Query("SELECT c.id, c.name, c.description, c.createdAt, p.id, p.name, " +
+           "(SELECT COUNT(pr) FROM Product pr WHERE pr.category = c AND pr.deletedAt IS NULL) " +
+           "FROM Category c LEFT JOIN c.parent p")
+    List<Object[]> findTreeRows();
+
+    @Query("SELECT c.id, p.id FROM Category c LEFT JOIN c.parent p")
+    List<Object[]> findParentLinks();
+
     boolean existsByName(String name);
 }
@@ -1,10 +1,18 @@
 package com.jewelryshop.repository;
 
+import com.jewelryshop.entity.Order;
 import com.jewelryshop.entity.OrderItem;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
@@ -12,4 +20,18 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     List<OrderItem> findByOrderId(Long orderId);
 
     List<OrderItem> findByProductId(Long productId);
+
+    // Rows of (productId, quantity, orderedAt) for orders not in the excluded status.
+    // Streamed, so the caller must run inside a transaction and close the stream.
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT oi.product.id, oi.quantity, o.createdAt FROM OrderItem oi JOIN oi.order o " +
+           "WHERE o.orderStatus <> :excludedStatus")
+    Stream<Object[]> streamSales(@Param("excludedStatus") Order.OrderStatus excludedStatus);
+
+    // Rows of (orderId, productId) grouped by order, for rebuilding co-occurrence counts.
+    // Streamed, so the caller must run inside a transaction and close the stream.
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT o.id, oi.product.id FROM OrderItem oi JOIN oi.order o " +
+           "WHERE o.orderStatus <> :excludedStatus ORDER BY o.id")
+    Stream<Object[]> streamOrderBaskets(@Param("excludedStatus") Order.OrderStatus excludedStatus);
 }
@@ -0,0 +1,50 @@
+package com.jewelryshop.repository;
+
+import com.jewelryshop.entity.ProductRatingSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProductRatingSummaryRepository extends JpaRepository<ProductRatingSummary, Long> {
+
+    List<ProductRatingSummary> findByProductIdIn(Collection<Long> productIds);
+
+    // averageRating is assigned first: MySQL evaluates SET clauses left to right,
+    // so it must be computed before ratingTotal/reviewCount are overwritten
+    @Modifying
+    @Query("UPDATE ProductRatingSummary s SET " +
+           "s.averageRating = CASE WHEN s.reviewCount + :countDelta > 0 " +
+           "THEN (s.ratingTotal + :ratingDelta) * 1.0 / (s.reviewCount + :countDelta) ELSE 0 END, " +
+           "s.ratingTotal = s.ratingTotal + :ratingDelta, " +
+           "s.reviewCount = s.reviewCount + :countDelta, " +
+           "s.updatedAt = :now " +
+           "WHERE s.productId = :productId")
+    int applyDelta(@Param("productId") Long productId,
+                   @Param("ratingDelta") long ratingDelta,
+                   @Param("countDelta") long countDelta,
+                   @Param("now") LocalDateTime now);
+
+    // Insert-or-increment in one statement, so concurrent first reviews cannot race on the primary key;
+    // average_rating again comes first to see the old totals
+    @Modifying
+    @Query(value = "INSERT INTO product_rating_summaries " +
+                   "(product_id, rating_total, review_count, average_rating, updated_at) " +
+                   "VALUES (:productId, :ratingDelta, :countDelta, :ratingDelta * 1.0 / :countDelta, :now) " +
+                   "ON DUPLICATE KEY UPDATE " +
+                   "average_rating = CASE WHEN review_count + :countDelta > 0 " +
+                   "THEN (rating_total + :ratingDelta) * 1.0 / (review_count + :countDelta) ELSE 0 END, " +
+                   "rating_total = rating_total + :ratingDelta, " +
+                   "review_count = review_count + :countDelta, " +
+                   "updated_at = :now", nativeQuery = true)
+    void upsertDelta(@Param("productId") Long productId,
+                     @Param("ratingDelta") long ratingDelta,
+                     @Param("countDelta") long countDelta,
+                     @Param("now") LocalDateTime now);
+}
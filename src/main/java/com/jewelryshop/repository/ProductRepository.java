@@ -1,45 +1,73 @@
 package com.jewelryshop.repository;
 
+import com.jewelryshop.dto.ProductSummaryResponse;
 import com.jewelryshop.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
 
     Optional<Product> findBySku(String sku);
 
+    @EntityGraph(attributePaths = "category")
     @Query("SELECT p FROM Product p WHERE p.deletedAt IS NULL AND p.isActive = true")
     Page<Product> findAllActiveProducts(Pageable pageable);
 
+    @EntityGraph(attributePaths = "category")
     @Query("SELECT p FROM Product p WHERE p.id = :id AND p.deletedAt IS NULL")
     Optional<Product> findByIdAndNotDeleted(@Param("id") Long id);
 
+    @EntityGraph(attributePaths = "category")
     @Query("SELECT p FROM Product p WHERE p.category.id = :categoryId AND p.deletedAt IS NULL AND p.isActive = true")
     Page<Product> findByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
 
+    // The category and all of its subcategories, through the closure table
+    @EntityGraph(attributePaths = "category")
+    @Query("SELECT p FROM Product p JOIN CategoryClosure cc ON cc.descendantId = p.category.id " +
+           "WHERE cc.ancestorId = :categoryId AND p.deletedAt IS NULL AND p.isActive = true")
+    Page<Product> findByCategoryTree(@Param("categoryId") Long categoryId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "category")
     @Query("SELECT p FROM Product p WHERE p.isFeatured = true AND p.deletedAt IS NULL AND p.isActive = true")
     Page<Product> findFeaturedProducts(Pageable pageable);
 
-    @Query("SELECT p FROM Product p WHERE (LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
+    @Query("SELECT p.id FROM Product p WHERE (LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
            "OR LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
-           "AND p.deletedAt IS NULL AND p.isActive = true")
-    Page<Product> searchProducts(@Param("keyword") String keyword, Pageable pageable);
+           "AND p.deletedAt IS NULL AND p.isActive = true ORDER BY p.createdAt DESC, p.id DESC")
+    List<Long> findIdsByKeyword(@Param("keyword") String keyword, Pageable pageable);
+
+    @Query(value = "SELECT p.id FROM products p WHERE p.deleted_at IS NULL AND p.is_active = true " +
+                   "AND MATCH(p.name, p.description) AGAINST (:query IN BOOLEAN MODE) " +
+                   "ORDER BY MATCH(p.name, p.description) AGAINST (:query IN BOOLEAN MODE) DESC, p.id DESC " +
+                   "LIMIT :limit", nativeQuery = true)
+    List<Long> findIdsByFullTextBoolean(@Param("query") String query, @Param("limit") int limit);
+
+    @Query(value = "SELECT p.id FROM products p WHERE p.deleted_at IS NULL AND p.is_active = true " +
+                   "AND MATCH(p.name, p.description) AGAINST (:query IN NATURAL LANGUAGE MODE) " +
+                   "ORDER BY MATCH(p.name, p.description) AGAINST (:query IN NATURAL LANGUAGE MODE) DESC, p.id DESC " +
+                   "LIMIT :limit", nativeQuery = true)
+    List<Long> findIdsByFullTextNatural(@Param("query") String query, @Param("limit") int limit);
 
     @Query("SELECT p FROM Product p JOIN OrderItem oi ON p.id = oi.product.id " +
            "GROUP BY p.id ORDER BY SUM(oi.quantity) DESC")
     List<Product> findTopSellingProducts(Pageable pageable);
 
+    @EntityGraph(attributePaths = "category")
     @Query("SELECT p FROM Product p WHERE p.deletedAt IS NULL AND p.isActive = true " +
            "AND (:search IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :search, '%')) OR LOWER(p.description) LIKE LOWER(CONCAT('%', :search, '%'))) " +
-           "AND (:categoryId IS NULL OR p.category.id = :categoryId) " +
+           "AND " + IN_CATEGORY_TREE + " " +
            "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
            "AND (:maxPrice IS NULL OR p.price <= :maxPrice)")
     Page<Product> findWithFilters(@Param("search") String search,
@@ -48,6 +76,157 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
                                    @Param("maxPrice") Double maxPrice,
                                    Pageable pageable);
 
+    @EntityGraph(attributePaths = "category")
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids AND p.deletedAt IS NULL AND p.isActive = true " +
+           "AND " + IN_CATEGORY_TREE + " " +
+           "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
+           "AND (:maxPrice IS NULL OR p.price <= :maxPrice)")
+    Page<Product> findWithFiltersByIds(@Param("ids") Collection<Long> ids,
+                                       @Param("categoryId") Long categoryId,
+                                       @Param("minPrice") Double minPrice,
+                                       @Param("maxPrice") Double maxPrice,
+                                       Pageable pageable);
+
+    @EntityGraph(attributePaths = "category")
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids AND p.deletedAt IS NULL AND p.isActive = true")
+    List<Product> findActiveByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Includes soft-deleted rows so callers can tell deleted ids from unknown ones
+    @EntityGraph(attributePaths = "category")
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids")
+    List<Product> findAllByIdInWithCategory(@Param("ids") Collection<Long> ids);
+
+    // Listing projection: reads only the columns a product grid needs, without loading entities
+    String SUMMARY_SELECT = "SELECT new com.jewelryshop.dto.ProductSummaryResponse(" +
+            "p.id, p.name, p.price, COALESCE(p.discountPrice, p.price), " +
+            "COALESCE(" +
+            "(SELECT i.imageUrl FROM ProductImage i WHERE i.id = " +
+            "(SELECT MIN(pi.id) FROM ProductImage pi WHERE pi.product.id = p.id AND pi.isPrimary = true)), " +
+            "(SELECT i.imageUrl FROM ProductImage i WHERE i.id = " +
+            "(SELECT MIN(pi.id) FROM ProductImage pi WHERE pi.product.id = p.id))), " +
+            "COALESCE(r.averageRating, 0.0), COALESCE(r.reviewCount, 0L), p.stockQuantity) " +
+            "FROM Product p LEFT JOIN ProductRatingSummary r ON r.productId = p.id ";
+
+    // A category filter covers its subcategories, through the closure table
+    String IN_CATEGORY_TREE = "(:categoryId IS NULL OR p.category.id IN " +
+            "(SELECT cc.descendantId FROM CategoryClosure cc WHERE cc.ancestorId = :categoryId))";
+
+    String FILTER_CONDITIONS = "p.deletedAt IS NULL AND p.isActive = true " +
+            "AND " + IN_CATEGORY_TREE + " " +
+            "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
+            "AND (:maxPrice IS NULL OR p.price <= :maxPrice)";
+
+    @Query(value = SUMMARY_SELECT + "WHERE " + FILTER_CONDITIONS + " " +
+                   "AND (:search IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :search, '%')) OR LOWER(p.description) LIKE LOWER(CONCAT('%', :search, '%')))",
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE " + FILTER_CONDITIONS + " " +
+                   "AND (:search IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :search, '%')) OR LOWER(p.description) LIKE LOWER(CONCAT('%', :search, '%')))")
+    Page<ProductSummaryResponse> findSummariesWithFilters(@Param("search") String search,
+                                                          @Param("categoryId") Long categoryId,
+                                                          @Param("minPrice") Double minPrice,
+                                                          @Param("maxPrice") Double maxPrice,
+                                                          Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "WHERE p.id IN :ids AND " + FILTER_CONDITIONS,
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE p.id IN :ids AND " + FILTER_CONDITIONS)
+    Page<ProductSummaryResponse> findSummariesWithFiltersByIds(@Param("ids") Collection<Long> ids,
+                                                               @Param("categoryId") Long categoryId,
+                                                               @Param("minPrice") Double minPrice,
+                                                               @Param("maxPrice") Double maxPrice,
+                                                               Pageable pageable);
+
+    @Query("SELECT p.id, p.name, p.description, p.sku, c.name FROM Product p LEFT JOIN p.category c " +
+           "WHERE p.deletedAt IS NULL AND p.isActive = true")
+    List<Object[]> findSearchDocuments();
+
+    @Query("SELECT p.id, c.id, c.parent.id, COALESCE(p.discountPrice, p.price), p.averageRating, p.name " +
+           "FROM Product p LEFT JOIN p.category c WHERE p.deletedAt IS NULL AND p.isActive = true")
+    List<Object[]> findSimilarityDocuments();
+
+    @Query("SELECT p.id, c.id, c.parent.id, COALESCE(p.discountPrice, p.price), p.averageRating, p.name " +
+           "FROM Product p LEFT JOIN p.category c WHERE p.id = :id AND p.deletedAt IS NULL AND p.isActive = true")
+    List<Object[]> findSimilarityDocumentById(@Param("id") Long id);
+
+    // Serving fields for MappedProductStore, keyset-paged by id
+    String READ_MODEL_SELECT = "SELECT p.id, p.name, p.price, p.discountPrice, p.stockQuantity, c.id, " +
+            "COALESCE(" +
+            "(SELECT i.imageUrl FROM ProductImage i WHERE i.id = " +
+            "(SELECT MIN(pi.id) FROM ProductImage pi WHERE pi.product.id = p.id AND pi.isPrimary = true)), " +
+            "(SELECT i.imageUrl FROM ProductImage i WHERE i.id = " +
+            "(SELECT MIN(pi.id) FROM ProductImage pi WHERE pi.product.id = p.id))), " +
+            "p.averageRating, p.reviewCount " +
+            "FROM Product p LEFT JOIN p.category c ";
+
+    @Query(READ_MODEL_SELECT + "WHERE p.id > :afterId AND p.deletedAt IS NULL AND p.isActive = true ORDER BY p.id")
+    List<Object[]> findReadModelDocumentsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(READ_MODEL_SELECT + "WHERE p.id = :id AND p.deletedAt IS NULL AND p.isActive = true")
+    List<Object[]> findReadModelDocumentById(@Param("id") Long id);
+
+    @Query("SELECT p.id, p.name, p.description, p.sku, c.name FROM Product p LEFT JOIN p.category c " +
+           "WHERE p.id = :id AND p.deletedAt IS NULL AND p.isActive = true")
+    List<Object[]> findSearchDocumentById(@Param("id") Long id);
+
+    @Query("SELECT p.id, p.category.id, p.price, p.isFeatured, p.createdAt, p.discountPrice, p.stockQuantity " +
+           "FROM Product p WHERE p.deletedAt IS NULL AND p.isActive = true")
+    List<Object[]> findFacetDocuments();
+
+    @Query("SELECT p.id, p.category.id, p.price, p.isFeatured, p.createdAt, p.discountPrice, p.stockQuantity " +
+           "FROM Product p WHERE p.id = :id AND p.deletedAt IS NULL AND p.isActive = true")
+    List<Object[]> findFacetDocumentById(@Param("id") Long id);
+
+    @Query("SELECT p.id, p.name, p.sku, p.isFeatured, r.reviewCount, r.averageRating FROM Product p " +
+           "LEFT JOIN ProductRatingSummary r ON r.productId = p.id " +
+           "WHERE p.deletedAt IS NULL AND p.isActive = true")
+    List<Object[]> findSuggestionDocuments();
+
+    @Query("SELECT p.id, p.name, p.sku, p.isFeatured, r.reviewCount, r.averageRating FROM Product p " +
+           "LEFT JOIN ProductRatingSummary r ON r.productId = p.id " +
+           "WHERE p.id = :id AND p.deletedAt IS NULL AND p.isActive = true")
+    List<Object[]> findSuggestionDocumentById(@Param("id") Long id);
+
+    @Query("SELECT p.id, p.name FROM Product p WHERE LOWER(p.name) LIKE CONCAT(:prefix, '%') " +
+           "AND p.deletedAt IS NULL AND p.isActive = true ORDER BY p.isFeatured DESC, p.name ASC")
+    List<Object[]> findNamesStartingWith(@Param("prefix") String prefix, Pageable pageable);
+
+    // Same log-sum-exp as PopularityScore.add, evaluated in the database so concurrent orders do not race
+    @Modifying
+    @Query("UPDATE Product p SET " +
+           "p.popularityScore = CASE WHEN p.popularityScore IS NULL THEN :boost " +
+           "ELSE GREATEST(p.popularityScore, :boost) + LN(1 + EXP(-ABS(p.popularityScore - :boost))) END, " +
+           "p.unitsSold = COALESCE(p.unitsSold, 0) + :quantity " +
+           "WHERE p.id = :id")
+    int recordSale(@Param("id") Long id, @Param("quantity") long quantity, @Param("boost") double boost);
+
+    // Cancellations give the units back; the popularity already earned decays away on its own
+    @Modifying
+    @Query("UPDATE Product p SET p.unitsSold = GREATEST(COALESCE(p.unitsSold, 0) - :quantity, 0) WHERE p.id = :id")
+    int reverseSale(@Param("id") Long id, @Param("quantity") long quantity);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.unitsSold = :unitsSold, p.popularityScore = :popularityScore WHERE p.id = :id")
+    int setSalesSortKeys(@Param("id") Long id,
+                         @Param("unitsSold") long unitsSold,
+                         @Param("popularityScore") Double popularityScore);
+
+    @Modifying
+    @Query("UPDATE Product p SET " +
+           "p.averageRating = COALESCE((SELECT s.averageRating FROM ProductRatingSummary s WHERE s.productId = p.id), 0), " +
+           "p.reviewCount = COALESCE((SELECT s.reviewCount FROM ProductRatingSummary s WHERE s.productId = p.id), 0) " +
+           "WHERE p.id = :id")
+    int syncRatingSortKeys(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Product p SET " +
+           "p.averageRating = COALESCE((SELECT s.averageRating FROM ProductRatingSummary s WHERE s.productId = p.id), 0), " +
+           "p.reviewCount = COALESCE((SELECT s.reviewCount FROM ProductRatingSummary s WHERE s.productId = p.id), 0)")
+    int syncAllRatingSortKeys();
+
+    @Query("SELECT p.id FROM Product p")
+    List<Long> findAllIds();
+
+    @Query("SELECT COUNT(p) FROM Product p WHERE p.unitsSold IS NULL OR p.reviewCount IS NULL")
+    long countMissingSortKeys();
+
     @Query("SELECT COUNT(p) FROM Product p WHERE p.category.id = :categoryId AND p.deletedAt IS NULL")
     Long countByCategoryId(@Param("categoryId") Long categoryId);
 
@@ -0,0 +1,59 @@
+package com.jewelryshop.repository;
+
+import com.jewelryshop.entity.CategoryClosure;
+import com.jewelryshop.entity.Product;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> isActive() {
+        return (root, query, cb) -> cb.and(
+                cb.isNull(root.get("deletedAt")),
+                cb.isTrue(root.get("isActive")));
+    }
+
+    public static Specification<Product> isFeatured() {
+        return (root, query, cb) -> cb.isTrue(root.get("isFeatured"));
+    }
+
+    // The category and all of its subcategories, through the closure table
+    public static Specification<Product> inCategoryTree(Long categoryId) {
+        return (root, query, cb) -> {
+            if (categoryId == null) {
+                return null;
+            }
+            Subquery<Long> descendants = query.subquery(Long.class);
+            Root<CategoryClosure> closure = descendants.from(CategoryClosure.class);
+            descendants.select(closure.get("descendantId"))
+                    .where(cb.equal(closure.get("ancestorId"), categoryId));
+            return root.get("category").get("id").in(descendants);
+        };
+    }
+
+    public static Specification<Product> priceBetween(Double minPrice, Double maxPrice) {
+        return (root, query, cb) -> {
+            if (minPrice == null && maxPrice == null) {
+                return null;
+            }
+            if (minPrice == null) {
+                return cb.lessThanOrEqualTo(root.get("price"), BigDecimal.valueOf(maxPrice));
+            }
+            if (maxPrice == null) {
+                return cb.greaterThanOrEqualTo(root.get("price"), BigDecimal.valueOf(minPrice));
+            }
+            return cb.between(root.get("price"), BigDecimal.valueOf(minPrice), BigDecimal.valueOf(maxPrice));
+        };
+    }
+
+    public static Specification<Product> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+}
@@ -2,8 +2,10 @@ package com.jewelryshop.repository;
 
 import com.jewelryshop.entity.ProductVariant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -11,5 +13,11 @@ public interface ProductVariantRepository extends JpaRepository<ProductVariant,
 
     List<ProductVariant> findByProductId(Long productId);
 
+    List<ProductVariant> findByProductIdInOrderByIdAsc(Collection<Long> productIds);
+
     void deleteByProductId(Long productId);
+
+    @Query("SELECT v.product.id, v.variantName FROM ProductVariant v " +
+           "WHERE v.variantName IS NOT NULL AND v.product.deletedAt IS NULL AND v.product.isActive = true")
+    List<Object[]> findActiveVariantNames();
 }
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -23,4 +24,7 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     Double getAverageRatingByProductId(@Param("productId") Long productId);
 
     long countByProductId(Long productId);
+
+    @Query("SELECT r.product.id, SUM(r.rating), COUNT(r) FROM Review r GROUP BY r.product.id")
+    List<Object[]> getRatingTotalsGroupedByProduct();
 }
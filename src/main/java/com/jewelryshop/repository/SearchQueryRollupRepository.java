@@ -0,0 +1,33 @@
+package com.jewelryshop.repository;
+
+import com.jewelryshop.dto.SearchQueryStatsResponse;
+import com.jewelryshop.entity.SearchQueryRollup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SearchQueryRollupRepository extends JpaRepository<SearchQueryRollup, Long> {
+
+    String STATS_SELECT = "SELECT new com.jewelryshop.dto.SearchQueryStatsResponse(" +
+            "r.queryText, SUM(r.searches), SUM(r.totalResults) * 1.0 / SUM(r.searches), SUM(r.zeroResults), " +
+            "SUM(r.totalLatencyMs) / SUM(r.searches), MAX(r.maxLatencyMs)) " +
+            "FROM SearchQueryRollup r WHERE r.bucketStart >= :since GROUP BY r.queryText ";
+
+    @Query(STATS_SELECT + "ORDER BY SUM(r.searches) DESC")
+    List<SearchQueryStatsResponse> findTopQueries(@Param("since") LocalDateTime since, Pageable pageable);
+
+    @Query(STATS_SELECT + "HAVING SUM(r.zeroResults) > 0 ORDER BY SUM(r.zeroResults) DESC")
+    List<SearchQueryStatsResponse> findZeroResultQueries(@Param("since") LocalDateTime since, Pageable pageable);
+
+    @Query(STATS_SELECT + "HAVING SUM(r.searches) >= :minSearches " +
+           "ORDER BY SUM(r.totalLatencyMs) / SUM(r.searches) DESC")
+    List<SearchQueryStatsResponse> findSlowestQueries(@Param("since") LocalDateTime since,
+                                                      @Param("minSearches") long minSearches,
+                                                      Pageable pageable);
+}
@@ -0,0 +1,9 @@
+package com.jewelryshop.repository;
+
+import com.jewelryshop.entity.TrendingCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TrendingCounterRepository extends JpaRepository<TrendingCounter, Long> {
+}
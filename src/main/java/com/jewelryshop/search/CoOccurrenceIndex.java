@@ -0,0 +1,249 @@
+package com.jewelryshop.search;
+
+import com.jewelryshop.entity.Order;
+import com.jewelryshop.event.OrderCancelledEvent;
+import com.jewelryshop.event.OrderPlacedEvent;
+import com.jewelryshop.repository.OrderItemRepository;
+import com.jewelryshop.util.LongIntHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * "Frequently bought together": for every product, how many non-cancelled orders also
+ * contained each other product. Rows are sparse primitive maps pruned to the strongest
+ * companions, built from order history at startup and updated as orders are placed and
+ * cancelled. A cancellation only takes back counts that survived pruning.
+ */
+@Component
+@Slf4j
+public class CoOccurrenceIndex {
+
+    public static final int MAX_RESULTS = 20;
+
+    // Only the first products of very large orders are paired, to bound the n² update
+    private static final int MAX_BASKET_SIZE = 30;
+    // A row is pruned back to PRUNED_COMPANIONS once it tracks more than MAX_COMPANIONS
+    private static final int MAX_COMPANIONS = 100;
+    private static final int PRUNED_COMPANIONS = 50;
+
+    private final OrderItemRepository orderItemRepository;
+
+    // Holds OrderPlacedEvent and OrderCancelledEvent, replayed in the order they arrived
+    private final RebuildGate<Object> rebuildGate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, LongIntHashMap> companions = new HashMap<>();
+
+    private volatile boolean ready;
+
+    public CoOccurrenceIndex(OrderItemRepository orderItemRepository, PlatformTransactionManager transactionManager) {
+        this.orderItemRepository = orderItemRepository;
+        this.rebuildGate = new RebuildGate<>("co-occurrence index", transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        // Orders placed or cancelled during the rebuild may or may not be reflected in the stream;
+        // replay a placement only if its order was not streamed, a cancellation only if it was
+        BitSet streamed = new BitSet();
+        rebuildGate.beginRebuild();
+        try {
+            Map<Long, LongIntHashMap> rebuilt = new HashMap<>();
+            int orders = 0;
+            try (Stream<Object[]> rows = orderItemRepository.streamOrderBaskets(Order.OrderStatus.CANCELLED)) {
+                Long currentOrder = null;
+                Set<Long> basket = new LinkedHashSet<>();
+                for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                    Long orderId = (Long) row[0];
+                    if (!orderId.equals(currentOrder)) {
+                        addBasket(rebuilt, basket);
+                        basket.clear();
+                        currentOrder = orderId;
+                        streamed.set(orderId.intValue());
+                        orders++;
+                    }
+                    basket.add((Long) row[1]);
+                }
+                addBasket(rebuilt, basket);
+            }
+
+            lock.writeLock().lock();
+            try {
+                companions = rebuilt;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Co-occurrence index built: {} orders, {} products in {} ms",
+                    orders, rebuilt.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            // Companion endpoints return empty lists until the index is built
+            log.error("Failed to build co-occurrence index", e);
+        } finally {
+            rebuildGate.endRebuild(event -> {
+                if (event instanceof OrderPlacedEvent placed) {
+                    int orderId = placed.getOrderId().intValue();
+                    if (!streamed.get(orderId)) {
+                        streamed.set(orderId);
+                        addOrder(placed);
+                    }
+                } else if (event instanceof OrderCancelledEvent cancelled) {
+                    int orderId = cancelled.getOrderId().intValue();
+                    if (streamed.get(orderId)) {
+                        streamed.clear(orderId);
+                        removeOrder(cancelled);
+                    }
+                }
+            });
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        rebuildGate.submit(event, placed -> addOrder((OrderPlacedEvent) placed));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderCancelled(OrderCancelledEvent event) {
+        rebuildGate.submit(event, cancelled -> removeOrder((OrderCancelledEvent) cancelled));
+    }
+
+    private void addOrder(OrderPlacedEvent event) {
+        if (!ready) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            addBasket(companions, new LinkedHashSet<>(event.getProductIds()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeOrder(OrderCancelledEvent event) {
+        if (!ready) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeBasket(companions, new LinkedHashSet<>(event.getProductIds()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Products most often ordered together with the given one, strongest first.
+     */
+    public List<Long> companionsOf(Long productId, int limit) {
+        int k = Math.min(Math.max(limit, 1), MAX_RESULTS);
+        lock.readLock().lock();
+        try {
+            LongIntHashMap row = companions.get(productId);
+            return row != null ? toList(row.topKeys(k)) : Collections.emptyList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Products most often ordered together with any of the given ones, summing the counts
+     * over all of them and leaving out the given products themselves.
+     */
+    public List<Long> companionsOf(Collection<Long> productIds, int limit) {
+        int k = Math.min(Math.max(limit, 1), MAX_RESULTS);
+        Set<Long> excluded = new HashSet<>(productIds);
+        LongIntHashMap combined = new LongIntHashMap(MAX_COMPANIONS);
+
+        lock.readLock().lock();
+        try {
+            for (Long productId : excluded) {
+                LongIntHashMap row = companions.get(productId);
+                if (row != null) {
+                    row.forEach((companionId, count) -> {
+                        if (!excluded.contains(companionId)) {
+                            combined.addTo(companionId, count);
+                        }
+                    });
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return toList(combined.topKeys(k));
+    }
+
+    static void addBasket(Map<Long, LongIntHashMap> target, Set<Long> basket) {
+        if (basket.size() < 2) {
+            return;
+        }
+        List<Long> products = new ArrayList<>(basket);
+        int size = Math.min(products.size(), MAX_BASKET_SIZE);
+        for (int i = 0; i < size; i++) {
+            LongIntHashMap row = target.computeIfAbsent(products.get(i), id -> new LongIntHashMap());
+            for (int j = 0; j < size; j++) {
+                if (i != j) {
+                    row.addTo(products.get(j), 1);
+                }
+            }
+            if (row.size() > MAX_COMPANIONS) {
+                row.retainTop(PRUNED_COMPANIONS);
+            }
+        }
+    }
+
+    // Undoes addBasket for the same basket; pairs already pruned from a row stay gone
+    static void removeBasket(Map<Long, LongIntHashMap> target, Set<Long> basket) {
+        if (basket.size() < 2) {
+            return;
+        }
+        List<Long> products = new ArrayList<>(basket);
+        int size = Math.min(products.size(), MAX_BASKET_SIZE);
+        for (int i = 0; i < size; i++) {
+            LongIntHashMap row = target.get(products.get(i));
+            if (row == null) {
+                continue;
+            }
+            for (int j = 0; j < size; j++) {
+                if (i != j) {
+                    row.subtractFrom(products.get(j), 1);
+                }
+            }
+            if (row.size() == 0) {
+                target.remove(products.get(i));
+            }
+        }
+    }
+
+    private static List<Long> toList(long[] ids) {
+        List<Long> list = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,117 @@
+package com.jewelryshop.search;
+
+import com.jewelryshop.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * MySQL FULLTEXT search over product name and description. Boolean mode requires every
+ * word and treats the last one as a prefix; natural-language mode ranks by relevance
+ * without requiring all words.
+ *
+ * The FULLTEXT index cannot be declared through JPA. When this is the configured backend
+ * and catalog.search.fulltext.create-index is set, a missing index is created at startup;
+ * otherwise the backend is only available where the index already exists.
+ */
+@Component
+@Slf4j
+public class FullTextSearchBackend implements ProductSearchBackend {
+
+    public static final String NAME = "fulltext";
+
+    private static final String INDEX_NAME = "ft_products_name_description";
+
+    // InnoDB ignores shorter words by default (innodb_ft_min_token_size)
+    private static final int MIN_WORD_LENGTH = 3;
+
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean booleanMode;
+    private final boolean createIndex;
+
+    private volatile boolean available;
+
+    public FullTextSearchBackend(ProductRepository productRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 @Value("${catalog.search.fulltext.mode:boolean}") String mode,
+                                 @Value("${catalog.search.fulltext.create-index:false}") boolean createIndex,
+                                 @Value("${catalog.search.backend:memory}") String configuredBackend) {
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.booleanMode = !"natural".equalsIgnoreCase(mode);
+        // Building the index locks products for writes; never do it for a backend nobody queries
+        this.createIndex = createIndex && NAME.equals(configuredBackend);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndex() {
+        try {
+            Integer existing = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.statistics " +
+                    "WHERE table_schema = DATABASE() AND table_name = 'products' AND index_name = ?",
+                    Integer.class, INDEX_NAME);
+            if (existing == null || existing == 0) {
+                if (!createIndex) {
+                    log.info("FULLTEXT index {} is missing; fulltext search backend disabled", INDEX_NAME);
+                    return;
+                }
+                log.info("Creating FULLTEXT index {} on products(name, description)", INDEX_NAME);
+                jdbcTemplate.execute("CREATE FULLTEXT INDEX " + INDEX_NAME + " ON products (name, description)");
+            }
+            available = true;
+        } catch (Exception e) {
+            log.error("FULLTEXT search is unavailable", e);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @Override
+    public List<Long> search(String query, int limit) {
+        if (!booleanMode) {
+            return productRepository.findIdsByFullTextNatural(query, limit);
+        }
+        String booleanQuery = toBooleanQuery(query);
+        if (booleanQuery.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return productRepository.findIdsByFullTextBoolean(booleanQuery, limit);
+    }
+
+    // "rose gold ri" -> "+rose +gold +ri*"; operators typed by the user are dropped
+    static String toBooleanQuery(String query) {
+        String[] words = query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+");
+        StringBuilder booleanQuery = new StringBuilder();
+        for (int i = 0; i < words.length; i++) {
+            String word = words[i];
+            boolean last = i == words.length - 1;
+            if (word.isEmpty() || (word.length() < MIN_WORD_LENGTH && !last)) {
+                continue;
+            }
+            if (booleanQuery.length() > 0) {
+                booleanQuery.append(' ');
+            }
+            booleanQuery.append('+').append(word);
+            if (last) {
+                booleanQuery.append('*');
+            }
+        }
+        return booleanQuery.toString();
+    }
+}
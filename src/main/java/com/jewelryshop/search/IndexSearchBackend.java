@@ -0,0 +1,30 @@
+package com.jewelryshop.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class IndexSearchBackend implements ProductSearchBackend {
+
+    public static final String NAME = "memory";
+
+    private final ProductSearchIndex productSearchIndex;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return productSearchIndex.isReady();
+    }
+
+    @Override
+    public List<Long> search(String query, int limit) {
+        return productSearchIndex.search(query, limit);
+    }
+}
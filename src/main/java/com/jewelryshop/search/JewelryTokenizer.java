@@ -0,0 +1,131 @@
+package com.jewelryshop.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public final class JewelryTokenizer {
+
+    // "22K", "22 kt", "18-karat" -> gold purity
+    private static final Pattern PURITY = Pattern.compile("\\b(\\d{1,2})\\s*-?\\s*(k|kt|karat|karats)\\b");
+
+    // "1-carat", "0.5 ct", ".75ct", "2cts" -> stone weight
+    private static final Pattern CARAT_WEIGHT = Pattern.compile("(?<![\\w.])(\\d+(?:\\.\\d+)?|\\.\\d+)\\s*-?\\s*(ct|cts|carat|carats)\\b");
+
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+
+    // British spelling uses "carat" for gold purity too ("22 carat gold")
+    private static final Set<String> GOLD_PURITIES = Set.of("9", "10", "14", "18", "22", "24");
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "the", "of", "for", "with", "in", "on", "to", "by", "or", "at", "is");
+
+    private JewelryTokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+
+        String normalized = text.toLowerCase(Locale.ROOT);
+
+        Matcher purity = PURITY.matcher(normalized);
+        while (purity.find()) {
+            tokens.add(stripLeadingZeros(purity.group(1)) + "k");
+            tokens.add("karat");
+        }
+
+        Matcher carat = CARAT_WEIGHT.matcher(normalized);
+        while (carat.find()) {
+            String weight = stripLeadingZeros(carat.group(1));
+            // Canonicalized to the purity tokens alone: every token is required at query
+            // time, so also emitting the weight tokens would miss "18K" listings
+            if (carat.group(2).startsWith("carat") && GOLD_PURITIES.contains(weight)) {
+                tokens.add(weight + "k");
+                tokens.add("karat");
+            } else {
+                tokens.add(weight + "ct");
+                tokens.add("carat");
+            }
+        }
+
+        // Drop the unit words already folded into the tokens above
+        normalized = PURITY.matcher(normalized).replaceAll(" ");
+        normalized = CARAT_WEIGHT.matcher(normalized).replaceAll(" ");
+
+        for (String word : NON_ALPHANUMERIC.split(normalized)) {
+            if (word.isEmpty() || STOP_WORDS.contains(word)) {
+                continue;
+            }
+            tokens.add(normalizeWord(word));
+        }
+        return tokens;
+    }
+
+    /**
+     * Returns the token produced by the last word of the text if that word may still be
+     * being typed, i.e. nothing follows it. Returns null when the text ends in a separator,
+     * or when the last word is a stop word or was folded into a purity or weight token.
+     */
+    public static String trailingToken(String text) {
+        if (text == null || text.isEmpty()) {
+            return null;
+        }
+        String normalized = text.toLowerCase(Locale.ROOT);
+        char last = normalized.charAt(normalized.length() - 1);
+        if (!(last >= 'a' && last <= 'z') && !(last >= '0' && last <= '9')) {
+            return null;
+        }
+        normalized = PURITY.matcher(normalized).replaceAll(" ");
+        normalized = CARAT_WEIGHT.matcher(normalized).replaceAll(" ");
+        if (!normalized.endsWith(String.valueOf(last))) {
+            return null;
+        }
+        String[] words = NON_ALPHANUMERIC.split(normalized);
+        String word = words[words.length - 1];
+        return STOP_WORDS.contains(word) ? null : normalizeWord(word);
+    }
+
+    static String normalizeWord(String word) {
+        switch (word) {
+            case "ct":
+            case "cts":
+            case "carats":
+                return "carat";
+            case "kt":
+            case "karats":
+                return "karat";
+            default:
+                return stem(word);
+        }
+    }
+
+    // Light plural stemming so "rings" finds "ring" and "necklaces" finds "necklace"
+    private static String stem(String word) {
+        if (word.length() <= 3 || Character.isDigit(word.charAt(word.length() - 1))) {
+            return word;
+        }
+        if (word.endsWith("ies") && word.length() > 4) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.endsWith("ches") || word.endsWith("shes") || word.endsWith("xes") || word.endsWith("sses")) {
+            return word.substring(0, word.length() - 2);
+        }
+        if (word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+
+    private static String stripLeadingZeros(String number) {
+        if (number.contains(".")) {
+            return number.startsWith(".") ? "0" + number : number;
+        }
+        return number.replaceFirst("^0+(?=\\d)", "");
+    }
+}
@@ -0,0 +1,36 @@
+package com.jewelryshop.search;
+
+import com.jewelryshop.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Substring match on name and description. Needs no index, so it is always available
+ * and serves as the fallback for the other backends.
+ */
+@Component
+@RequiredArgsConstructor
+public class LikeSearchBackend implements ProductSearchBackend {
+
+    public static final String NAME = "like";
+
+    private final ProductRepository productRepository;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public List<Long> search(String query, int limit) {
+        return productRepository.findIdsByKeyword(query.trim(), PageRequest.of(0, limit));
+    }
+}
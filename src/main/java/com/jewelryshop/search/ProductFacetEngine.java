@@ -0,0 +1,530 @@
+package com.jewelryshop.search;
+
+import com.jewelryshop.dto.CatalogFacetsResponse;
+import com.jewelryshop.dto.PriceRangeCount;
+import com.jewelryshop.dto.ProductFacets;
+import com.jewelryshop.event.ProductChangedEvent;
+import com.jewelryshop.repository.ProductRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Answers the category / price / featured filter combinations of the product listing
+ * by intersecting bitsets over dense product ordinals, and computes facet counts for
+ * the storefront sidebar in the same pass.
+ */
+@Component
+@Slf4j
+public class ProductFacetEngine {
+
+    // Lower bounds of the price buckets (INR); the last bucket is open-ended
+    private static final double[] PRICE_BUCKET_BOUNDS = {0, 5000, 10000, 25000, 50000, 100000, 200000, 500000};
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    public static final int MAX_HISTOGRAM_BUCKETS = 50;
+
+    private final ProductRepository productRepository;
+
+    private final RebuildGate<Long> rebuildGate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> ordinalById = new HashMap<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private int nextOrdinal;
+
+    // Columns indexed by ordinal
+    private long[] productIds = new long[INITIAL_CAPACITY];
+    private long[] categoryIds = new long[INITIAL_CAPACITY];
+    private double[] prices = new double[INITIAL_CAPACITY];
+    private long[] createdAt = new long[INITIAL_CAPACITY];
+    // Discount price when set, list price otherwise
+    private double[] effectivePrices = new double[INITIAL_CAPACITY];
+    private int[] stock = new int[INITIAL_CAPACITY];
+
+    private final BitSet live = new BitSet();
+    private final BitSet featured = new BitSet();
+    private final Map<Long, BitSet> byCategory = new HashMap<>();
+    private final BitSet[] byPriceBucket = newPriceBuckets();
+
+    private volatile boolean ready;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Result {
+        private final List<Long> productIds;
+        private final long totalElements;
+        private final ProductFacets facets;
+    }
+
+    public ProductFacetEngine(ProductRepository productRepository, PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.rebuildGate = new RebuildGate<>("product facet engine", transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        rebuildGate.beginRebuild();
+        try {
+            List<Object[]> documents = productRepository.findFacetDocuments();
+
+            lock.writeLock().lock();
+            try {
+                clear();
+                for (Object[] document : documents) {
+                    addDocument(document);
+                }
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Product facet engine built: {} products in {} ms",
+                    documents.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            // Listings keep using the database query until the engine is warm
+            log.error("Failed to build product facet engine", e);
+        } finally {
+            rebuildGate.endRebuild(this::reload);
+        }
+    }
+
+    // Facet requests answer 503 while the engine is cold, so a failed startup build is retried here
+    @Scheduled(fixedDelayString = "${catalog.facets.retry-interval-ms:60000}",
+               initialDelayString = "${catalog.facets.retry-interval-ms:60000}")
+    public void rebuildIfCold() {
+        if (!ready) {
+            rebuild();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true, condition = "#event.detailsChange or #event.stockChange")
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        rebuildGate.submit(event.getProductId(), this::reload);
+    }
+
+    private void reload(Long productId) {
+        if (!ready) {
+            return;
+        }
+        List<Object[]> documents = productRepository.findFacetDocumentById(productId);
+
+        lock.writeLock().lock();
+        try {
+            removeDocument(productId);
+            if (!documents.isEmpty()) {
+                addDocument(documents.get(0));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the requested page of product ids with facet counts, or null when the
+     * sort order is not one the engine can evaluate in memory.
+     *
+     * @param restrictToIds ids from the search index, or null when there is no search term
+     * @param categoryIds the filtered category and its subcategories, or null for every category
+     */
+    public Result query(Collection<Long> restrictToIds, Collection<Long> categoryIds, Double minPrice, Double maxPrice,
+                        String sortBy, Pageable pageable) {
+        String sortKey = sortBy == null || sortBy.isEmpty() ? "newest" : comparatorKey(sortBy);
+        if (sortKey == null) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            BitSet base = (BitSet) live.clone();
+            if (restrictToIds != null) {
+                base.and(toBitSet(restrictToIds));
+            }
+
+            BitSet categoryMatch = categoryIds != null ? categoryFilter(categoryIds) : null;
+            BitSet priceMatch = minPrice != null || maxPrice != null ? priceFilter(minPrice, maxPrice) : null;
+
+            BitSet matches = (BitSet) base.clone();
+            if (categoryMatch != null) {
+                matches.and(categoryMatch);
+            }
+            if (priceMatch != null) {
+                matches.and(priceMatch);
+            }
+
+            ProductFacets facets = new ProductFacets();
+            facets.setCategoryCounts(categoryCounts(base, priceMatch));
+            facets.setPriceRanges(priceRangeCounts(base, categoryMatch));
+            facets.setFeaturedCount((long) intersectionCount(matches, featured));
+
+            List<Long> pageIds = sortedPage(matches, sortKey, pageable);
+            return new Result(pageIds, matches.cardinality(), facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Facet counts for a filter set without fetching a page. As in {@link #query}, each facet
+     * ignores its own filter: the price histogram and min/max cover every price within the
+     * category, and category counts cover every category within the price range.
+     * Price filters apply to the list price, like the listing queries; the histogram and
+     * min/max use the effective (discounted) price customers actually pay.
+     */
+    public CatalogFacetsResponse facets(Collection<Long> restrictToIds, Collection<Long> categoryIds,
+                                        Double minPrice, Double maxPrice, int histogramBuckets) {
+        int buckets = Math.min(Math.max(histogramBuckets, 1), MAX_HISTOGRAM_BUCKETS);
+
+        lock.readLock().lock();
+        try {
+            BitSet base = (BitSet) live.clone();
+            if (restrictToIds != null) {
+                base.and(toBitSet(restrictToIds));
+            }
+
+            BitSet categoryMatch = categoryIds != null ? categoryFilter(categoryIds) : null;
+            BitSet priceMatch = minPrice != null || maxPrice != null ? priceFilter(minPrice, maxPrice) : null;
+
+            BitSet priceScope = (BitSet) base.clone();
+            if (categoryMatch != null) {
+                priceScope.and(categoryMatch);
+            }
+            BitSet matches = (BitSet) priceScope.clone();
+            if (priceMatch != null) {
+                matches.and(priceMatch);
+            }
+
+            int inStock = 0;
+            for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+                if (stock[ordinal] > 0) {
+                    inStock++;
+                }
+            }
+
+            CatalogFacetsResponse response = new CatalogFacetsResponse();
+            response.setTotalElements((long) matches.cardinality());
+            response.setInStockCount((long) inStock);
+            response.setFeaturedCount((long) intersectionCount(matches, featured));
+            response.setCategoryCounts(categoryCounts(base, priceMatch));
+            fillPriceHistogram(response, priceScope, buckets);
+            return response;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Two passes over the scope: one for the effective price range, one to count equal-width buckets
+    private void fillPriceHistogram(CatalogFacetsResponse response, BitSet scope, int buckets) {
+        if (scope.isEmpty()) {
+            return;
+        }
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int ordinal = scope.nextSetBit(0); ordinal >= 0; ordinal = scope.nextSetBit(ordinal + 1)) {
+            min = Math.min(min, effectivePrices[ordinal]);
+            max = Math.max(max, effectivePrices[ordinal]);
+        }
+        response.setMinEffectivePrice(min);
+        response.setMaxEffectivePrice(max);
+
+        // A single price still gets one bucket; the last bucket includes the maximum
+        double width = (max - min) / buckets;
+        int bucketCount = width > 0 ? buckets : 1;
+        long[] counts = new long[bucketCount];
+        for (int ordinal = scope.nextSetBit(0); ordinal >= 0; ordinal = scope.nextSetBit(ordinal + 1)) {
+            int bucket = width > 0 ? (int) ((effectivePrices[ordinal] - min) / width) : 0;
+            counts[Math.min(bucket, bucketCount - 1)]++;
+        }
+
+        List<PriceRangeCount> histogram = new ArrayList<>(bucketCount);
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            double lower = min + bucket * width;
+            double upper = bucket == bucketCount - 1 ? max : min + (bucket + 1) * width;
+            histogram.add(new PriceRangeCount(roundPrice(lower), roundPrice(upper), counts[bucket]));
+        }
+        response.setPriceHistogram(histogram);
+    }
+
+    private static double roundPrice(double price) {
+        return Math.round(price * 100.0) / 100.0;
+    }
+
+    private Map<Long, Long> categoryCounts(BitSet base, BitSet priceMatch) {
+        BitSet scope = base;
+        if (priceMatch != null) {
+            scope = (BitSet) base.clone();
+            scope.and(priceMatch);
+        }
+
+        Map<Long, Long> counts = new LinkedHashMap<>();
+        for (Map.Entry<Long, BitSet> category : byCategory.entrySet()) {
+            int count = intersectionCount(scope, category.getValue());
+            if (count > 0) {
+                counts.put(category.getKey(), (long) count);
+            }
+        }
+        return counts;
+    }
+
+    private List<PriceRangeCount> priceRangeCounts(BitSet base, BitSet categoryMatch) {
+        BitSet scope = base;
+        if (categoryMatch != null) {
+            scope = (BitSet) base.clone();
+            scope.and(categoryMatch);
+        }
+
+        List<PriceRangeCount> ranges = new ArrayList<>();
+        for (int bucket = 0; bucket < PRICE_BUCKET_BOUNDS.length; bucket++) {
+            Double upper = bucket + 1 < PRICE_BUCKET_BOUNDS.length ? PRICE_BUCKET_BOUNDS[bucket + 1] : null;
+            ranges.add(new PriceRangeCount(PRICE_BUCKET_BOUNDS[bucket], upper,
+                    (long) intersectionCount(scope, byPriceBucket[bucket])));
+        }
+        return ranges;
+    }
+
+    // Products in any of the categories, so a parent category also matches its subcategories
+    private BitSet categoryFilter(Collection<Long> categoryIds) {
+        BitSet match = new BitSet();
+        for (Long categoryId : categoryIds) {
+            BitSet category = byCategory.get(categoryId);
+            if (category != null) {
+                match.or(category);
+            }
+        }
+        return match;
+    }
+
+    private BitSet priceFilter(Double minPrice, Double maxPrice) {
+        double min = minPrice != null ? minPrice : Double.NEGATIVE_INFINITY;
+        double max = maxPrice != null ? maxPrice : Double.POSITIVE_INFINITY;
+
+        BitSet result = new BitSet();
+        for (int bucket = 0; bucket < PRICE_BUCKET_BOUNDS.length; bucket++) {
+            double lower = PRICE_BUCKET_BOUNDS[bucket];
+            double upper = bucket + 1 < PRICE_BUCKET_BOUNDS.length ? PRICE_BUCKET_BOUNDS[bucket + 1] : Double.POSITIVE_INFINITY;
+            if (upper <= min || lower > max) {
+                continue;
+            }
+            if (lower >= min && upper <= max) {
+                // Bucket lies entirely inside the range
+                result.or(byPriceBucket[bucket]);
+            } else {
+                // Boundary bucket: check individual prices
+                BitSet candidates = byPriceBucket[bucket];
+                for (int ordinal = candidates.nextSetBit(0); ordinal >= 0; ordinal = candidates.nextSetBit(ordinal + 1)) {
+                    if (prices[ordinal] >= min && prices[ordinal] <= max) {
+                        result.set(ordinal);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private List<Long> sortedPage(BitSet matches, String sortKey, Pageable pageable) {
+        long offset = pageable.getOffset();
+        int count = matches.cardinality();
+        if (offset >= count) {
+            return new ArrayList<>();
+        }
+        int needed = (int) Math.min(count, offset + pageable.getPageSize());
+
+        OrdinalComparator comparator = new OrdinalComparator(sortKey);
+
+        // Keep only the best "needed" ordinals; the heap head is the worst of them
+        PriorityQueue<Integer> heap = new PriorityQueue<>(needed, comparator.reversed());
+        for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+            if (heap.size() < needed) {
+                heap.add(ordinal);
+            } else if (comparator.compare(ordinal, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(ordinal);
+            }
+        }
+
+        Integer[] best = heap.toArray(new Integer[0]);
+        Arrays.sort(best, comparator);
+
+        List<Long> pageIds = new ArrayList<>(pageable.getPageSize());
+        for (int i = (int) offset; i < best.length; i++) {
+            pageIds.add(productIds[best[i]]);
+        }
+        return pageIds;
+    }
+
+    private static String comparatorKey(String sortBy) {
+        switch (sortBy.toLowerCase()) {
+            case "newest":
+            case "price-asc":
+            case "price-desc":
+                return sortBy.toLowerCase();
+            default:
+                return null;
+        }
+    }
+
+    private class OrdinalComparator implements Comparator<Integer> {
+
+        private final String sortKey;
+
+        OrdinalComparator(String sortKey) {
+            this.sortKey = sortKey;
+        }
+
+        @Override
+        public int compare(Integer a, Integer b) {
+            switch (sortKey) {
+                case "price-asc":
+                    int byPriceAsc = Double.compare(prices[a], prices[b]);
+                    return byPriceAsc != 0 ? byPriceAsc : Long.compare(productIds[a], productIds[b]);
+                case "price-desc":
+                    int byPriceDesc = Double.compare(prices[b], prices[a]);
+                    return byPriceDesc != 0 ? byPriceDesc : Long.compare(productIds[b], productIds[a]);
+                default:
+                    int byNewest = Long.compare(createdAt[b], createdAt[a]);
+                    return byNewest != 0 ? byNewest : Long.compare(productIds[b], productIds[a]);
+            }
+        }
+    }
+
+    private BitSet toBitSet(Collection<Long> ids) {
+        BitSet result = new BitSet();
+        for (Long id : ids) {
+            Integer ordinal = ordinalById.get(id);
+            if (ordinal != null) {
+                result.set(ordinal);
+            }
+        }
+        return result;
+    }
+
+    private static int intersectionCount(BitSet a, BitSet b) {
+        BitSet intersection = (BitSet) a.clone();
+        intersection.and(b);
+        return intersection.cardinality();
+    }
+
+    private void addDocument(Object[] document) {
+        Long productId = (Long) document[0];
+        Long categoryId = (Long) document[1];
+        BigDecimal price = (BigDecimal) document[2];
+        Boolean isFeatured = (Boolean) document[3];
+        LocalDateTime created = (LocalDateTime) document[4];
+        BigDecimal discountPrice = (BigDecimal) document[5];
+        Integer stockQuantity = (Integer) document[6];
+
+        int ordinal = freeOrdinals.isEmpty() ? nextOrdinal++ : freeOrdinals.pop();
+        ensureCapacity(ordinal + 1);
+
+        productIds[ordinal] = productId;
+        categoryIds[ordinal] = categoryId != null ? categoryId : 0L;
+        prices[ordinal] = price != null ? price.doubleValue() : 0.0;
+        createdAt[ordinal] = created != null ? created.toEpochSecond(ZoneOffset.UTC) : 0L;
+        effectivePrices[ordinal] = discountPrice != null ? discountPrice.doubleValue() : prices[ordinal];
+        stock[ordinal] = stockQuantity != null ? stockQuantity : 0;
+        ordinalById.put(productId, ordinal);
+
+        live.set(ordinal);
+        if (Boolean.TRUE.equals(isFeatured)) {
+            featured.set(ordinal);
+        }
+        if (categoryId != null) {
+            byCategory.computeIfAbsent(categoryId, id -> new BitSet()).set(ordinal);
+        }
+        byPriceBucket[priceBucket(prices[ordinal])].set(ordinal);
+    }
+
+    private void removeDocument(Long productId) {
+        Integer ordinal = ordinalById.remove(productId);
+        if (ordinal == null) {
+            return;
+        }
+
+        live.clear(ordinal);
+        featured.clear(ordinal);
+        BitSet category = byCategory.get(categoryIds[ordinal]);
+        if (category != null) {
+            category.clear(ordinal);
+            if (category.isEmpty()) {
+                byCategory.remove(categoryIds[ordinal]);
+            }
+        }
+        byPriceBucket[priceBucket(prices[ordinal])].clear(ordinal);
+        freeOrdinals.push(ordinal);
+    }
+
+    private static int priceBucket(double price) {
+        int bucket = Arrays.binarySearch(PRICE_BUCKET_BOUNDS, price);
+        if (bucket < 0) {
+            bucket = -bucket - 2;
+        }
+        return Math.max(bucket, 0);
+    }
+
+    private void ensureCapacity(int size) {
+        if (size <= productIds.length) {
+            return;
+        }
+        int capacity = Math.max(size, productIds.length * 2);
+        productIds = Arrays.copyOf(productIds, capacity);
+        categoryIds = Arrays.copyOf(categoryIds, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        createdAt = Arrays.copyOf(createdAt, capacity);
+        effectivePrices = Arrays.copyOf(effectivePrices, capacity);
+        stock = Arrays.copyOf(stock, capacity);
+    }
+
+    private void clear() {
+        ordinalById.clear();
+        freeOrdinals.clear();
+        nextOrdinal = 0;
+        live.clear();
+        featured.clear();
+        byCategory.clear();
+        for (BitSet bucket : byPriceBucket) {
+            bucket.clear();
+        }
+    }
+
+    private static BitSet[] newPriceBuckets() {
+        BitSet[] buckets = new BitSet[PRICE_BUCKET_BOUNDS.length];
+        for (int bucket = 0; bucket < buckets.length; bucket++) {
+            buckets[bucket] = new BitSet();
+        }
+        return buckets;
+    }
+}
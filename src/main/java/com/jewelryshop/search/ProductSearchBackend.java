@@ -0,0 +1,19 @@
+package com.jewelryshop.search;
+
+import java.util.List;
+
+/**
+ * A way of turning a free-text query into matching product ids. The active backend is
+ * chosen with {@code catalog.search.backend}; see {@link SearchBackendRouter}.
+ */
+public interface ProductSearchBackend {
+
+    // Value used for this backend in catalog.search.backend
+    String getName();
+
+    // False while the backend cannot answer, e.g. an index that is still building
+    boolean isAvailable();
+
+    // Ids of active products matching the query, best match first, at most limit
+    List<Long> search(String query, int limit);
+}
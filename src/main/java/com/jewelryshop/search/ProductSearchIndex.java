@@ -0,0 +1,250 @@
+package com.jewelryshop.search;
+
+import com.jewelryshop.event.ProductChangedEvent;
+import com.jewelryshop.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+@Slf4j
+public class ProductSearchIndex {
+
+    private static final float SKU_BOOST = 4.0f;
+    private static final float NAME_BOOST = 3.0f;
+    private static final float CATEGORY_BOOST = 2.0f;
+    private static final float DESCRIPTION_BOOST = 1.0f;
+
+    // Weight of a term reached by prefix expansion of the last (still being typed) query word
+    private static final float PREFIX_MATCH_WEIGHT = 0.5f;
+
+    // Weight lost per edit when a term only matches after spelling correction
+    private static final float FUZZY_PENALTY_PER_EDIT = 0.3f;
+    private static final int MAX_CORRECTIONS = 3;
+
+    private final ProductRepository productRepository;
+
+    private final RebuildGate<Long> rebuildGate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // term -> (productId -> field-boosted term frequency)
+    private NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+
+    // productId -> terms, needed to remove a product's postings on update/delete
+    private Map<Long, Set<String>> documentTerms = new HashMap<>();
+
+    // Trigrams of the vocabulary, for correcting misspelled query terms
+    private TrigramIndex trigrams = new TrigramIndex();
+
+    private volatile boolean ready;
+
+    public ProductSearchIndex(ProductRepository productRepository, PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.rebuildGate = new RebuildGate<>("product search index", transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        rebuildGate.beginRebuild();
+        try {
+            List<Object[]> documents = productRepository.findSearchDocuments();
+
+            NavigableMap<String, Map<Long, Float>> newPostings = new TreeMap<>();
+            Map<Long, Set<String>> newDocumentTerms = new HashMap<>();
+            TrigramIndex newTrigrams = new TrigramIndex();
+            for (Object[] document : documents) {
+                addDocument(document, newPostings, newDocumentTerms, newTrigrams);
+            }
+
+            lock.writeLock().lock();
+            try {
+                postings = newPostings;
+                documentTerms = newDocumentTerms;
+                trigrams = newTrigrams;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Product search index built: {} products, {} terms in {} ms",
+                    newDocumentTerms.size(), newPostings.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            // Searches fall back to the database until the index is available
+            log.error("Failed to build product search index", e);
+        } finally {
+            rebuildGate.endRebuild(this::reload);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true, condition = "#event.detailsChange")
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        rebuildGate.submit(event.getProductId(), this::reload);
+        log.debug("Search index updated for product {} ({})", event.getProductId(), event.getType());
+    }
+
+    private void reload(Long productId) {
+        List<Object[]> documents = productRepository.findSearchDocumentById(productId);
+
+        lock.writeLock().lock();
+        try {
+            removeDocument(productId);
+            if (!documents.isEmpty()) {
+                addDocument(documents.get(0), postings, documentTerms, trigrams);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns ids of active products matching every query term, best match first.
+     * The last query word is also matched as a prefix so partially typed words still hit,
+     * and a term with no match at all is replaced by its closest spellings in the vocabulary.
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(JewelryTokenizer.tokenize(query)));
+        if (terms.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // Purity and weight tokens come first, so the word being typed need not be the last token
+        String partial = JewelryTokenizer.trailingToken(query);
+
+        Map<Long, Float> scores;
+        lock.readLock().lock();
+        try {
+            scores = null;
+            for (int i = 0; i < terms.size(); i++) {
+                boolean prefix = terms.get(i).equals(partial);
+                Map<Long, Float> termScores = scoreTerm(terms.get(i), prefix);
+                if (termScores.isEmpty()) {
+                    termScores = scoreCorrections(terms.get(i));
+                }
+
+                if (scores == null) {
+                    scores = new HashMap<>(termScores);
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    Map<Long, Float> matched = termScores;
+                    scores.replaceAll((productId, score) -> score + matched.get(productId));
+                }
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Map.Entry<Long, Float>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort((a, b) -> {
+            int byScore = Float.compare(b.getValue(), a.getValue());
+            return byScore != 0 ? byScore : Long.compare(b.getKey(), a.getKey());
+        });
+
+        List<Long> productIds = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (int i = 0; i < ranked.size() && i < limit; i++) {
+            productIds.add(ranked.get(i).getKey());
+        }
+        return productIds;
+    }
+
+    private Map<Long, Float> scoreTerm(String term, boolean prefix) {
+        Map<Long, Float> scores = new HashMap<>();
+        Map<String, Map<Long, Float>> matches = prefix
+                ? postings.subMap(term, true, term + Character.MAX_VALUE, true)
+                : postings.containsKey(term) ? Map.of(term, postings.get(term)) : Map.of();
+
+        int documentCount = Math.max(documentTerms.size(), 1);
+        for (Map.Entry<String, Map<Long, Float>> match : matches.entrySet()) {
+            Map<Long, Float> termPostings = match.getValue();
+            float weight = match.getKey().equals(term) ? 1.0f : PREFIX_MATCH_WEIGHT;
+            float idf = (float) Math.log(1.0 + (double) documentCount / termPostings.size());
+
+            for (Map.Entry<Long, Float> posting : termPostings.entrySet()) {
+                float score = weight * idf * posting.getValue();
+                scores.merge(posting.getKey(), score, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    private Map<Long, Float> scoreCorrections(String term) {
+        Map<Long, Float> scores = new HashMap<>();
+        for (TrigramIndex.Match correction : trigrams.corrections(term, MAX_CORRECTIONS)) {
+            float weight = 1.0f - FUZZY_PENALTY_PER_EDIT * correction.getDistance();
+            Map<Long, Float> correctedScores = scoreTerm(correction.getTerm(), false);
+            for (Map.Entry<Long, Float> score : correctedScores.entrySet()) {
+                scores.merge(score.getKey(), weight * score.getValue(), Math::max);
+            }
+        }
+        return scores;
+    }
+
+    private void addDocument(Object[] document,
+                             Map<String, Map<Long, Float>> targetPostings,
+                             Map<Long, Set<String>> targetDocumentTerms,
+                             TrigramIndex targetTrigrams) {
+        Long productId = (Long) document[0];
+        Map<String, Float> termWeights = new HashMap<>();
+
+        addField(termWeights, (String) document[1], NAME_BOOST);
+        addField(termWeights, (String) document[2], DESCRIPTION_BOOST);
+        addField(termWeights, (String) document[3], SKU_BOOST);
+        addField(termWeights, (String) document[4], CATEGORY_BOOST);
+
+        for (Map.Entry<String, Float> termWeight : termWeights.entrySet()) {
+            targetPostings.computeIfAbsent(termWeight.getKey(), term -> {
+                targetTrigrams.add(term);
+                return new HashMap<>();
+            }).put(productId, termWeight.getValue());
+        }
+        targetDocumentTerms.put(productId, new HashSet<>(termWeights.keySet()));
+    }
+
+    private void addField(Map<String, Float> termWeights, String text, float boost) {
+        for (String token : JewelryTokenizer.tokenize(text)) {
+            termWeights.merge(token, boost, Float::sum);
+        }
+    }
+
+    private void removeDocument(Long productId) {
+        Set<String> terms = documentTerms.remove(productId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Float> termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(productId);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                    trigrams.remove(term);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.jewelryshop.search;
+
+import com.jewelryshop.dto.SuggestionResponse;
+import com.jewelryshop.event.CategoryChangedEvent;
+import com.jewelryshop.event.ProductChangedEvent;
+import com.jewelryshop.repository.CategoryRepository;
+import com.jewelryshop.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix trie over product names, SKUs and category names for search-box typeahead.
+ * Every node keeps its best suggestions precomputed, so a lookup is a walk down the
+ * typed prefix plus a copy of at most {@link #MAX_SUGGESTIONS} entries.
+ */
+@Component
+@Slf4j
+public class ProductSuggester {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final double FEATURED_BONUS = 1.5;
+    private static final double CATEGORY_BONUS = 1.0;
+
+    private static final Comparator<Suggestion> BY_WEIGHT = Comparator
+            .comparingDouble((Suggestion s) -> s.weight).reversed()
+            .thenComparing(s -> s.text);
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+
+    private final RebuildGate<Long> rebuildGate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Node root = new Node();
+
+    // productId -> its suggestions, needed to unlink them on update/delete
+    private Map<Long, List<Suggestion>> productSuggestions = new HashMap<>();
+
+    private volatile boolean ready;
+
+    private static final class Suggestion {
+        private final String text;
+        private final SuggestionResponse.Type type;
+        private final Long id;
+        private final double weight;
+
+        Suggestion(String text, SuggestionResponse.Type type, Long id, double weight) {
+            this.text = text;
+            this.type = type;
+            this.id = id;
+            this.weight = weight;
+        }
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private final List<Suggestion> terminals = new ArrayList<>(1);
+        private List<Suggestion> top = Collections.emptyList();
+    }
+
+    public ProductSuggester(ProductRepository productRepository, CategoryRepository categoryRepository,
+                            PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.rebuildGate = new RebuildGate<>("product suggestion trie", transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        rebuildGate.beginRebuild();
+        try {
+            Node newRoot = new Node();
+            Map<Long, List<Suggestion>> newProductSuggestions = new HashMap<>();
+
+            for (Object[] document : productRepository.findSuggestionDocuments()) {
+                List<Suggestion> suggestions = productSuggestions(document);
+                suggestions.forEach(suggestion -> insert(newRoot, suggestion, false));
+                newProductSuggestions.put((Long) document[0], suggestions);
+            }
+            for (Object[] document : categoryRepository.findSuggestionDocuments()) {
+                String name = (String) document[1];
+                if (name != null && !name.isBlank()) {
+                    double weight = CATEGORY_BONUS + 1.0 + Math.log1p((Long) document[2]);
+                    insert(newRoot, new Suggestion(name, SuggestionResponse.Type.CATEGORY, (Long) document[0], weight), false);
+                }
+            }
+            computeTop(newRoot);
+
+            lock.writeLock().lock();
+            try {
+                root = newRoot;
+                productSuggestions = newProductSuggestions;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Product suggestion trie built: {} products in {} ms",
+                    newProductSuggestions.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            // Suggestions fall back to a name prefix query until the trie is available
+            log.error("Failed to build product suggestion trie", e);
+        } finally {
+            rebuildGate.endRebuild(this::reload);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true, condition = "#event.detailsChange or #event.ratingChange")
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        rebuildGate.submit(event.getProductId(), this::reload);
+        log.debug("Suggestion trie updated for product {} ({})", event.getProductId(), event.getType());
+    }
+
+    private void reload(Long productId) {
+        if (!ready) {
+            return;
+        }
+        List<Object[]> documents = productRepository.findSuggestionDocumentById(productId);
+
+        lock.writeLock().lock();
+        try {
+            List<Suggestion> previous = productSuggestions.remove(productId);
+            if (previous != null) {
+                previous.forEach(suggestion -> remove(root, suggestion));
+            }
+            if (!documents.isEmpty()) {
+                List<Suggestion> suggestions = productSuggestions(documents.get(0));
+                suggestions.forEach(suggestion -> insert(root, suggestion, true));
+                productSuggestions.put(productId, suggestions);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Category renames are rare; rebuilding keeps category weights in step as well
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        rebuild();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<SuggestionResponse> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        List<Suggestion> top;
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.children.get(prefix.charAt(i));
+            }
+            top = node != null ? node.top : Collections.emptyList();
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<SuggestionResponse> suggestions = new ArrayList<>(Math.min(limit, top.size()));
+        for (int i = 0; i < top.size() && i < limit; i++) {
+            Suggestion suggestion = top.get(i);
+            suggestions.add(new SuggestionResponse(suggestion.text, suggestion.type, suggestion.id));
+        }
+        return suggestions;
+    }
+
+    // Lower-cases and reduces punctuation to single spaces, so "Rose-Gold  Ring" and "rose gold ring" match
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                normalized.append(c);
+                pendingSpace = false;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    private List<Suggestion> productSuggestions(Object[] document) {
+        Long productId = (Long) document[0];
+        String name = (String) document[1];
+        String sku = (String) document[2];
+        double weight = productWeight((Boolean) document[3], (Long) document[4], (Double) document[5]);
+
+        List<Suggestion> suggestions = new ArrayList<>(2);
+        if (name != null && !name.isBlank()) {
+            suggestions.add(new Suggestion(name, SuggestionResponse.Type.PRODUCT, productId, weight));
+        }
+        if (sku != null && !sku.isBlank()) {
+            suggestions.add(new Suggestion(sku, SuggestionResponse.Type.SKU, productId, weight));
+        }
+        return suggestions;
+    }
+
+    private static double productWeight(Boolean featured, Long reviewCount, Double averageRating) {
+        double weight = 1.0;
+        if (reviewCount != null && reviewCount > 0) {
+            double rating = averageRating != null ? averageRating : 0.0;
+            weight += Math.log1p(reviewCount) * (0.5 + rating / 10.0);
+        }
+        if (Boolean.TRUE.equals(featured)) {
+            weight += FEATURED_BONUS;
+        }
+        return weight;
+    }
+
+    // Names and categories are reachable from the start of any word; SKUs only from the start
+    private static Set<String> keysOf(Suggestion suggestion) {
+        String normalized = normalize(suggestion.text);
+        Set<String> keys = new LinkedHashSet<>();
+        if (normalized.isEmpty()) {
+            return keys;
+        }
+        keys.add(normalized);
+        if (suggestion.type != SuggestionResponse.Type.SKU) {
+            for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+                keys.add(normalized.substring(i + 1));
+            }
+        }
+        return keys;
+    }
+
+    private static void insert(Node root, Suggestion suggestion, boolean updateTop) {
+        for (String key : keysOf(suggestion)) {
+            List<Node> path = new ArrayList<>(key.length() + 1);
+            Node node = root;
+            path.add(node);
+            for (int i = 0; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+                path.add(node);
+            }
+            node.terminals.add(suggestion);
+            if (updateTop) {
+                for (int i = path.size() - 1; i >= 0; i--) {
+                    updateTop(path.get(i));
+                }
+            }
+        }
+    }
+
+    private static void remove(Node root, Suggestion suggestion) {
+        for (String key : keysOf(suggestion)) {
+            List<Node> path = new ArrayList<>(key.length() + 1);
+            Node node = root;
+            path.add(node);
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+                path.add(node);
+            }
+            if (node == null) {
+                continue;
+            }
+            node.terminals.removeIf(terminal -> terminal == suggestion);
+
+            for (int i = path.size() - 1; i >= 0; i--) {
+                Node current = path.get(i);
+                if (i > 0 && current.terminals.isEmpty() && current.children.isEmpty()) {
+                    path.get(i - 1).children.remove(key.charAt(i - 1));
+                    continue;
+                }
+                updateTop(current);
+            }
+        }
+    }
+
+    private static void computeTop(Node node) {
+        for (Node child : node.children.values()) {
+            computeTop(child);
+        }
+        updateTop(node);
+    }
+
+    private static void updateTop(Node node) {
+        List<Suggestion> candidates = new ArrayList<>(node.terminals);
+        for (Node child : node.children.values()) {
+            candidates.addAll(child.top);
+        }
+        candidates.sort(BY_WEIGHT);
+
+        // A product can reach the same node through more than one word
+        Set<Suggestion> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Suggestion> top = new ArrayList<>(Math.min(MAX_SUGGESTIONS, candidates.size()));
+        for (Suggestion candidate : candidates) {
+            if (top.size() == MAX_SUGGESTIONS) {
+                break;
+            }
+            if (seen.add(candidate)) {
+                top.add(candidate);
+            }
+        }
+        node.top = top.isEmpty() ? Collections.emptyList() : top;
+    }
+}
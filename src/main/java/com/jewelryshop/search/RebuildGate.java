@@ -0,0 +1,112 @@
+package com.jewelryshop.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the incremental updates of an in-memory index from being lost to a full rebuild.
+ * A rebuild reads its snapshot first and swaps it in later; a change applied in between
+ * would be overwritten by the swap. While a rebuild runs, changes are therefore held and
+ * replayed once the rebuilt structures are in place.
+ *
+ * Changes to the same key are applied one at a time, and each apply reads the database
+ * only once it holds the key's lock, so an older reload cannot overwrite a newer one.
+ * No lock is held while waiting for a connection: a listener already owns its transaction
+ * when it submits, and each replay opens its own read-only transaction before locking.
+ * A fresh transaction per replay also keeps replays from reading a snapshot older than a
+ * change applied directly in the meantime.
+ *
+ * @param <T> the change, typically a product id to reload
+ */
+@Slf4j
+public final class RebuildGate<T> {
+
+    private static final int KEY_LOCKS = 64;
+
+    private final String name;
+    private final TransactionTemplate replayTransaction;
+    private final ReentrantLock[] keyLocks = new ReentrantLock[KEY_LOCKS];
+
+    // Guards held and rebuilds only; never held while a change is applied
+    private final Object stateLock = new Object();
+    private Set<T> held;
+    private int rebuilds;
+
+    public RebuildGate(String name, PlatformTransactionManager transactionManager) {
+        this.name = name;
+        this.replayTransaction = new TransactionTemplate(transactionManager);
+        this.replayTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.replayTransaction.setReadOnly(true);
+        for (int i = 0; i < KEY_LOCKS; i++) {
+            keyLocks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Applies a change now, or holds it for replay if a rebuild is running.
+     */
+    public void submit(T change, Consumer<T> apply) {
+        synchronized (stateLock) {
+            if (held != null) {
+                held.add(change);
+                return;
+            }
+        }
+        applyLocked(change, apply);
+    }
+
+    /**
+     * Call before the rebuild reads anything. Changes committed earlier are part of what the
+     * rebuild reads; later ones are held.
+     */
+    public void beginRebuild() {
+        synchronized (stateLock) {
+            if (rebuilds++ == 0) {
+                held = new LinkedHashSet<>();
+            }
+        }
+    }
+
+    /**
+     * Call after the rebuilt structures are swapped in, or after the rebuild failed, and
+     * from a finally block either way. When the last overlapping rebuild ends, the held
+     * changes are replayed against whatever is now live.
+     */
+    public void endRebuild(Consumer<T> replay) {
+        Set<T> changes;
+        synchronized (stateLock) {
+            if (--rebuilds > 0) {
+                return;
+            }
+            changes = held;
+            held = null;
+        }
+        for (T change : changes) {
+            try {
+                replayTransaction.executeWithoutResult(status -> applyLocked(change, replay));
+            } catch (Exception e) {
+                log.error("Failed to replay change {} into {}", change, name, e);
+            }
+        }
+        if (!changes.isEmpty()) {
+            log.debug("Replayed {} changes held during the {} rebuild", changes.size(), name);
+        }
+    }
+
+    private void applyLocked(T change, Consumer<T> apply) {
+        ReentrantLock lock = keyLocks[Math.floorMod(change.hashCode(), KEY_LOCKS)];
+        lock.lock();
+        try {
+            apply.accept(change);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.jewelryshop.search;
+
+import com.jewelryshop.dto.SearchQueryStatsResponse;
+import com.jewelryshop.repository.SearchQueryRollupRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Aggregates catalog searches per normalized query: how often each was run, how often it
+ * came back empty, and how long it took. Queries are spread over lock stripes, each a
+ * Space-Saving heavy-hitter summary of fixed size, so memory stays bounded however many
+ * distinct queries arrive while frequent ones are always tracked. Per-query deltas are
+ * upserted into hourly rows of search_query_rollups in one JDBC batch per flush, and
+ * rows older than the retention period are purged in the background.
+ */
+@Component
+@Slf4j
+public class SearchAnalytics {
+
+    private static final int STRIPES = 16;
+    private static final int MAX_QUERY_LENGTH = 100;
+    // Unflushed deltas of evicted queries kept per stripe; beyond this they are dropped
+    private static final int MAX_EVICTED_PENDING = 256;
+
+    // Rows removed per DELETE, so a purge never holds locks on the table for long
+    private static final int PURGE_BATCH_SIZE = 10_000;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final String UPSERT_SQL = "INSERT INTO search_query_rollups " +
+            "(query_text, bucket_start, searches, total_results, zero_results, total_latency_ms, max_latency_ms) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
+            "searches = searches + VALUES(searches), " +
+            "total_results = total_results + VALUES(total_results), " +
+            "zero_results = zero_results + VALUES(zero_results), " +
+            "total_latency_ms = total_latency_ms + VALUES(total_latency_ms), " +
+            "max_latency_ms = GREATEST(max_latency_ms, VALUES(max_latency_ms))";
+
+    private static final String PURGE_SQL = "DELETE FROM search_query_rollups WHERE bucket_start < ? LIMIT " + PURGE_BATCH_SIZE;
+
+    private final SearchQueryRollupRepository searchQueryRollupRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final int retentionDays;
+
+    // Activity since the last flush; the counters only feed the sketch ranking
+    private static final class Pending {
+        private long searches;
+        private long totalResults;
+        private long zeroResults;
+        private long totalLatencyNanos;
+        private long maxLatencyNanos;
+
+        void add(int resultCount, long latencyNanos) {
+            searches++;
+            totalResults += resultCount;
+            if (resultCount == 0) {
+                zeroResults++;
+            }
+            totalLatencyNanos += latencyNanos;
+            maxLatencyNanos = Math.max(maxLatencyNanos, latencyNanos);
+        }
+    }
+
+    private static final class Counter {
+        private final String query;
+        // Space-Saving estimate: never below the true count, at most error above it
+        private long count;
+        private Pending pending = new Pending();
+
+        Counter(String query, long count) {
+            this.query = query;
+            this.count = count;
+        }
+    }
+
+    private static final class Stripe {
+        private final int capacity;
+        private final Map<String, Counter> counters = new HashMap<>();
+        private final List<Counter> evictedPending = new ArrayList<>();
+
+        Stripe(int capacity) {
+            this.capacity = capacity;
+        }
+
+        synchronized void record(String query, int resultCount, long latencyNanos) {
+            Counter counter = counters.get(query);
+            if (counter == null) {
+                long floor = 0;
+                if (counters.size() >= capacity) {
+                    // Replace the least counted query and inherit its count as the error bound
+                    Counter min = null;
+                    for (Counter candidate : counters.values()) {
+                        if (min == null || candidate.count < min.count) {
+                            min = candidate;
+                        }
+                    }
+                    counters.remove(min.query);
+                    floor = min.count;
+                    if (min.pending.searches > 0 && evictedPending.size() < MAX_EVICTED_PENDING) {
+                        evictedPending.add(min);
+                    }
+                }
+                counter = new Counter(query, floor);
+                counters.put(query, counter);
+            }
+            counter.count++;
+            counter.pending.add(resultCount, latencyNanos);
+        }
+
+        synchronized List<Counter> drainPending() {
+            List<Counter> drained = new ArrayList<>(evictedPending);
+            evictedPending.clear();
+            for (Counter counter : counters.values()) {
+                if (counter.pending.searches > 0) {
+                    Counter snapshot = new Counter(counter.query, counter.count);
+                    snapshot.pending = counter.pending;
+                    drained.add(snapshot);
+                    counter.pending = new Pending();
+                }
+            }
+            return drained;
+        }
+    }
+
+    public SearchAnalytics(SearchQueryRollupRepository searchQueryRollupRepository,
+                           JdbcTemplate jdbcTemplate,
+                           @Value("${catalog.search.analytics.max-queries:2048}") int maxQueries,
+                           @Value("${catalog.search.analytics.retention-days:90}") int retentionDays) {
+        this.searchQueryRollupRepository = searchQueryRollupRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.retentionDays = retentionDays;
+        int perStripe = Math.max(maxQueries / STRIPES, 1);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    public void record(String query, int resultCount, long latencyNanos) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        stripes[Math.floorMod(normalized.hashCode(), STRIPES)].record(normalized, resultCount, latencyNanos);
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.search.analytics.flush-interval-ms:60000}")
+    public void flush() {
+        Timestamp bucket = Timestamp.valueOf(LocalDateTime.now().truncatedTo(ChronoUnit.HOURS));
+        List<Object[]> rows = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            for (Counter counter : stripe.drainPending()) {
+                Pending pending = counter.pending;
+                rows.add(new Object[]{counter.query, bucket, pending.searches, pending.totalResults, pending.zeroResults,
+                        millis(pending.totalLatencyNanos), millis(pending.maxLatencyNanos)});
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+            log.debug("Flushed search analytics for {} queries", rows.size());
+        } catch (Exception e) {
+            // Analytics are best effort; a failed interval is not retried
+            log.error("Failed to flush search analytics for {} queries", rows.size(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.search.analytics.purge-interval-ms:3600000}",
+            initialDelayString = "${catalog.search.analytics.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        if (retentionDays <= 0) {
+            return;
+        }
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusDays(retentionDays));
+        try {
+            int purged = 0;
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(PURGE_SQL, cutoff);
+                purged += deleted;
+            } while (deleted == PURGE_BATCH_SIZE);
+            if (purged > 0) {
+                log.info("Purged {} search analytics rows older than {} days", purged, retentionDays);
+            }
+        } catch (Exception e) {
+            log.error("Failed to purge search analytics older than {} days", retentionDays, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    public List<SearchQueryStatsResponse> topQueries(int hours, int limit) {
+        return searchQueryRollupRepository.findTopQueries(since(hours), PageRequest.of(0, limit));
+    }
+
+    public List<SearchQueryStatsResponse> zeroResultQueries(int hours, int limit) {
+        return searchQueryRollupRepository.findZeroResultQueries(since(hours), PageRequest.of(0, limit));
+    }
+
+    public List<SearchQueryStatsResponse> slowestQueries(int hours, int limit, long minSearches) {
+        return searchQueryRollupRepository.findSlowestQueries(since(hours), minSearches, PageRequest.of(0, limit));
+    }
+
+    // Lower case, punctuation collapsed to single spaces, so "Gold Ring!" and "gold  ring" count together
+    static String normalize(String query) {
+        if (query == null) {
+            return "";
+        }
+        String normalized = NON_WORD.matcher(query.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+        return normalized.length() > MAX_QUERY_LENGTH ? normalized.substring(0, MAX_QUERY_LENGTH).trim() : normalized;
+    }
+
+    private static LocalDateTime since(int hours) {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(Math.max(hours, 1) - 1L);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
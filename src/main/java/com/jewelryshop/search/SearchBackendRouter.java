@@ -0,0 +1,116 @@
+package com.jewelryshop.search;
+
+import com.jewelryshop.dto.SearchBackendStatsResponse;
+import com.jewelryshop.dto.SearchComparisonResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends catalog searches to the backend named by {@code catalog.search.backend}
+ * (memory, fulltext or like), falling back to the LIKE backend while it is unavailable,
+ * and records per-backend query latency.
+ */
+@Component
+@Slf4j
+public class SearchBackendRouter {
+
+    private static final int COMPARISON_PREVIEW = 10;
+
+    private final Map<String, ProductSearchBackend> backends = new LinkedHashMap<>();
+    private final Map<String, LatencyStats> stats = new LinkedHashMap<>();
+    private final String configured;
+
+    private static class LatencyStats {
+        private final LongAdder queries = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private volatile long lastNanos;
+
+        void record(long nanos) {
+            queries.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            lastNanos = nanos;
+        }
+    }
+
+    public SearchBackendRouter(List<ProductSearchBackend> searchBackends,
+                               @Value("${catalog.search.backend:memory}") String configured) {
+        for (ProductSearchBackend backend : searchBackends) {
+            backends.put(backend.getName(), backend);
+            stats.put(backend.getName(), new LatencyStats());
+        }
+        if (!backends.containsKey(configured)) {
+            throw new IllegalStateException("Unknown catalog.search.backend '" + configured
+                    + "', expected one of " + backends.keySet());
+        }
+        this.configured = configured;
+        log.info("Catalog search backend: {}", configured);
+    }
+
+    public List<Long> search(String query, int limit) {
+        return search(activeBackend(), query, limit);
+    }
+
+    public List<SearchBackendStatsResponse> stats() {
+        String active = activeBackend().getName();
+        List<SearchBackendStatsResponse> responses = new ArrayList<>();
+        for (ProductSearchBackend backend : backends.values()) {
+            LatencyStats latency = stats.get(backend.getName());
+            long queries = latency.queries.sum();
+            responses.add(new SearchBackendStatsResponse(backend.getName(), backend.getName().equals(active),
+                    backend.isAvailable(), queries, latency.errors.sum(),
+                    queries == 0 ? 0.0 : millis(latency.totalNanos.sum() / queries),
+                    millis(latency.maxNanos.get()), millis(latency.lastNanos)));
+        }
+        return responses;
+    }
+
+    // Runs one query against every available backend so they can be compared on real data
+    public List<SearchComparisonResponse> compare(String query, int limit) {
+        List<SearchComparisonResponse> responses = new ArrayList<>();
+        for (ProductSearchBackend backend : backends.values()) {
+            if (!backend.isAvailable()) {
+                responses.add(new SearchComparisonResponse(backend.getName(), false, null, null, null));
+                continue;
+            }
+            long start = System.nanoTime();
+            List<Long> ids = search(backend, query, limit);
+            double elapsed = millis(System.nanoTime() - start);
+            responses.add(new SearchComparisonResponse(backend.getName(), true, ids.size(), elapsed,
+                    new ArrayList<>(ids.subList(0, Math.min(COMPARISON_PREVIEW, ids.size())))));
+        }
+        return responses;
+    }
+
+    private ProductSearchBackend activeBackend() {
+        ProductSearchBackend backend = backends.get(configured);
+        return backend.isAvailable() ? backend : backends.get(LikeSearchBackend.NAME);
+    }
+
+    private List<Long> search(ProductSearchBackend backend, String query, int limit) {
+        LatencyStats latency = stats.get(backend.getName());
+        long start = System.nanoTime();
+        try {
+            List<Long> ids = backend.search(query, limit);
+            latency.record(System.nanoTime() - start);
+            return ids;
+        } catch (RuntimeException e) {
+            latency.errors.increment();
+            throw e;
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,326 @@
+package com.jewelryshop.search;
+
+import com.jewelryshop.event.CategoryChangedEvent;
+import com.jewelryshop.event.ProductChangedEvent;
+import com.jewelryshop.repository.ProductRepository;
+import com.jewelryshop.repository.ProductVariantRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * "You may also like": encodes each product as a small weighted vector (price band,
+ * metal and purity parsed from its name and variant names, rating) and answers
+ * k-nearest-neighbour queries by scanning the packed vectors, with a penalty for
+ * products outside the category or its parent.
+ */
+@Component
+@Slf4j
+public class SimilarProductIndex {
+
+    public static final int MAX_NEIGHBOURS = 24;
+
+    // Vector layout; each dimension is pre-scaled by its weight so distance is plain squared Euclidean
+    private static final int PRICE = 0;
+    private static final int GOLD = 1;
+    private static final int SILVER = 2;
+    private static final int PLATINUM = 3;
+    private static final int DIAMOND = 4;
+    private static final int PURITY = 5;
+    private static final int RATING = 6;
+    private static final int DIMENSIONS = 7;
+
+    // A doubling in price moves a product about 0.6 away
+    private static final float PRICE_WEIGHT = 2.0f;
+    private static final float METAL_WEIGHT = 0.7f;
+    private static final float PURITY_WEIGHT = 1.0f;
+    private static final float RATING_WEIGHT = 0.5f;
+    private static final float OTHER_CATEGORY_PENALTY = 1.0f;
+    private static final float SIBLING_CATEGORY_PENALTY = 0.5f;
+
+    private static final Pattern KARAT = Pattern.compile("\\b(9|10|14|18|22|24)\\s*(k|kt|karat)\\b");
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ProductRepository productRepository;
+    private final ProductVariantRepository productVariantRepository;
+
+    private final RebuildGate<Long> rebuildGate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> ordinalById = new HashMap<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private final BitSet live = new BitSet();
+    private final Map<Long, BitSet> byCategory = new HashMap<>();
+    private int nextOrdinal;
+
+    private long[] productIds = new long[INITIAL_CAPACITY];
+    private long[] categoryIds = new long[INITIAL_CAPACITY];
+    private long[] parentCategoryIds = new long[INITIAL_CAPACITY];
+    // DIMENSIONS floats per ordinal
+    private float[] vectors = new float[INITIAL_CAPACITY * DIMENSIONS];
+
+    private volatile boolean ready;
+
+    private static class Neighbour {
+        private final float distance;
+        private final int ordinal;
+
+        Neighbour(float distance, int ordinal) {
+            this.distance = distance;
+            this.ordinal = ordinal;
+        }
+    }
+
+    public SimilarProductIndex(ProductRepository productRepository, ProductVariantRepository productVariantRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.productVariantRepository = productVariantRepository;
+        this.rebuildGate = new RebuildGate<>("similar product index", transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        rebuildGate.beginRebuild();
+        try {
+            List<Object[]> documents = productRepository.findSimilarityDocuments();
+            Map<Long, StringBuilder> variantText = new HashMap<>();
+            for (Object[] row : productVariantRepository.findActiveVariantNames()) {
+                variantText.computeIfAbsent((Long) row[0], id -> new StringBuilder()).append(' ').append(row[1]);
+            }
+
+            lock.writeLock().lock();
+            try {
+                clear();
+                for (Object[] document : documents) {
+                    StringBuilder variants = variantText.get((Long) document[0]);
+                    addDocument(document, variants != null ? variants.toString() : "");
+                }
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Similar product index built: {} products in {} ms",
+                    documents.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            // Similar products fall back to the same-category listing until the index is built
+            log.error("Failed to build similar product index", e);
+        } finally {
+            rebuildGate.endRebuild(this::reload);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true, condition = "#event.detailsChange or #event.ratingChange")
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        rebuildGate.submit(event.getProductId(), this::reload);
+    }
+
+    private void reload(Long productId) {
+        if (!ready) {
+            return;
+        }
+        List<Object[]> documents = productRepository.findSimilarityDocumentById(productId);
+        StringBuilder variants = new StringBuilder();
+        if (!documents.isEmpty()) {
+            productVariantRepository.findByProductId(productId)
+                    .forEach(variant -> variants.append(' ').append(variant.getVariantName()));
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeDocument(productId);
+            if (!documents.isEmpty()) {
+                addDocument(documents.get(0), variants.toString());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Re-parenting a category changes sibling penalties for every product under it
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        rebuild();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns up to {@code limit} product ids nearest to the given product, closest first,
+     * or an empty list when the product is not indexed.
+     */
+    public List<Long> similar(Long productId, int limit) {
+        int k = Math.min(Math.max(limit, 1), MAX_NEIGHBOURS);
+
+        lock.readLock().lock();
+        try {
+            Integer query = ordinalById.get(productId);
+            if (query == null) {
+                return Collections.emptyList();
+            }
+            // Max-heap on distance holding the best k seen so far; ties go to the lower ordinal
+            PriorityQueue<Neighbour> nearest = new PriorityQueue<>(k + 1, (a, b) -> a.distance != b.distance
+                    ? Float.compare(b.distance, a.distance) : Integer.compare(b.ordinal, a.ordinal));
+
+            // Same-category products carry no penalty, so scanning them first usually fills the
+            // heap tightly enough that nothing outside the category can get in
+            long queryCategory = categoryIds[query];
+            BitSet sameCategory = queryCategory != 0 ? byCategory.get(queryCategory) : null;
+            if (sameCategory != null) {
+                scan(query, sameCategory, nearest, k, true);
+            }
+            if (nearest.size() < k || nearest.peek().distance > SIBLING_CATEGORY_PENALTY) {
+                scan(query, live, nearest, k, sameCategory == null);
+            }
+
+            List<Long> ids = new ArrayList<>(nearest.size());
+            while (!nearest.isEmpty()) {
+                ids.add(productIds[nearest.poll().ordinal]);
+            }
+            Collections.reverse(ids);
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void scan(int query, BitSet candidates, PriorityQueue<Neighbour> nearest, int k, boolean includeSameCategory) {
+        int queryBase = query * DIMENSIONS;
+        long queryCategory = categoryIds[query];
+        long queryParent = parentCategoryIds[query];
+        for (int ordinal = candidates.nextSetBit(0); ordinal >= 0; ordinal = candidates.nextSetBit(ordinal + 1)) {
+            if (ordinal == query || !includeSameCategory && categoryIds[ordinal] == queryCategory) {
+                continue;
+            }
+            float bound = nearest.size() == k ? nearest.peek().distance : Float.MAX_VALUE;
+            float distance = categoryPenalty(queryCategory, queryParent, ordinal);
+            if (distance >= bound) {
+                continue;
+            }
+            int base = ordinal * DIMENSIONS;
+            for (int d = 0; d < DIMENSIONS && distance < bound; d++) {
+                float diff = vectors[queryBase + d] - vectors[base + d];
+                distance += diff * diff;
+            }
+            if (distance < bound) {
+                nearest.add(new Neighbour(distance, ordinal));
+                if (nearest.size() > k) {
+                    nearest.poll();
+                }
+            }
+        }
+    }
+
+    private float categoryPenalty(long queryCategory, long queryParent, int ordinal) {
+        if (queryCategory != 0 && categoryIds[ordinal] == queryCategory) {
+            return 0f;
+        }
+        // Siblings, the parent category and direct subcategories count as related
+        boolean related = queryParent != 0 && (parentCategoryIds[ordinal] == queryParent || categoryIds[ordinal] == queryParent)
+                || queryCategory != 0 && parentCategoryIds[ordinal] == queryCategory;
+        return related ? SIBLING_CATEGORY_PENALTY : OTHER_CATEGORY_PENALTY;
+    }
+
+    // Document columns: id, category id, parent category id, effective price, average rating, name
+    private void addDocument(Object[] document, String variantNames) {
+        Long productId = (Long) document[0];
+        Long categoryId = (Long) document[1];
+        Long parentId = (Long) document[2];
+        BigDecimal price = (BigDecimal) document[3];
+        Double rating = (Double) document[4];
+        String text = ((document[5] != null ? document[5] : "") + " " + variantNames).toLowerCase(Locale.ROOT);
+
+        int ordinal = freeOrdinals.isEmpty() ? nextOrdinal++ : freeOrdinals.pop();
+        ensureCapacity(ordinal + 1);
+        productIds[ordinal] = productId;
+        categoryIds[ordinal] = categoryId != null ? categoryId : 0L;
+        parentCategoryIds[ordinal] = parentId != null ? parentId : 0L;
+
+        int base = ordinal * DIMENSIONS;
+        double priceValue = price != null ? price.doubleValue() : 0.0;
+        vectors[base + PRICE] = (float) (PRICE_WEIGHT * Math.log10(Math.max(priceValue, 1.0)));
+        vectors[base + GOLD] = text.contains("gold") ? METAL_WEIGHT : 0f;
+        vectors[base + SILVER] = text.contains("silver") || text.contains("sterling") || text.contains("925")
+                ? METAL_WEIGHT : 0f;
+        vectors[base + PLATINUM] = text.contains("platinum") || text.contains("pt950") ? METAL_WEIGHT : 0f;
+        vectors[base + DIAMOND] = text.contains("diamond") || text.contains("solitaire") ? METAL_WEIGHT : 0f;
+        vectors[base + PURITY] = PURITY_WEIGHT * karat(text) / 24f;
+        vectors[base + RATING] = RATING_WEIGHT * (float) (rating != null ? rating : 0.0) / 5f;
+
+        ordinalById.put(productId, ordinal);
+        live.set(ordinal);
+        if (categoryId != null) {
+            byCategory.computeIfAbsent(categoryId, id -> new BitSet()).set(ordinal);
+        }
+    }
+
+    private void removeDocument(Long productId) {
+        Integer ordinal = ordinalById.remove(productId);
+        if (ordinal == null) {
+            return;
+        }
+        live.clear(ordinal);
+        BitSet category = byCategory.get(categoryIds[ordinal]);
+        if (category != null) {
+            category.clear(ordinal);
+        }
+        freeOrdinals.push(ordinal);
+    }
+
+    // Highest gold purity mentioned, e.g. "18k" or "22 karat"; 0 when none
+    private static int karat(String text) {
+        int karat = 0;
+        Matcher matcher = KARAT.matcher(text);
+        while (matcher.find()) {
+            karat = Math.max(karat, Integer.parseInt(matcher.group(1)));
+        }
+        return karat;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= productIds.length) {
+            return;
+        }
+        int capacity = Math.max(productIds.length * 2, required);
+        productIds = Arrays.copyOf(productIds, capacity);
+        categoryIds = Arrays.copyOf(categoryIds, capacity);
+        parentCategoryIds = Arrays.copyOf(parentCategoryIds, capacity);
+        vectors = Arrays.copyOf(vectors, capacity * DIMENSIONS);
+    }
+
+    private void clear() {
+        ordinalById.clear();
+        freeOrdinals.clear();
+        live.clear();
+        byCategory.clear();
+        nextOrdinal = 0;
+    }
+}
@@ -0,0 +1,221 @@
+package com.jewelryshop.search;
+
+import com.jewelryshop.entity.TrendingCounter;
+import com.jewelryshop.event.OrderPlacedEvent;
+import com.jewelryshop.repository.TrendingCounterRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * "Trending now": exponentially decayed view and purchase activity per product.
+ * Counters use forward decay in log space, log(weight) + (t - epoch) / tau, combined
+ * with log-sum-exp through a CAS on the raw double bits, so recording never locks and
+ * stored scores never need rescaling. Ranking by the stored score equals ranking by
+ * decayed activity at any moment; the top-k is refreshed on a schedule and the
+ * counters are checkpointed to trending_counters to survive restarts.
+ */
+@Component
+@Slf4j
+public class TrendingProducts {
+
+    public static final int MAX_TRENDING = 50;
+
+    // 2024-01-01T00:00:00Z, as in PopularityScore
+    private static final long EPOCH_MILLIS = 1_704_067_200_000L;
+
+    // Counters whose decayed value falls below this are dropped
+    private static final double MIN_ACTIVITY = 0.05;
+
+    // Marks a counter refresh() has pruned; add() moves on to a fresh counter instead of losing its boost
+    private static final long PRUNED = Double.doubleToRawLongBits(Double.NaN);
+
+    private static final String UPSERT_SQL = "INSERT INTO trending_counters (product_id, score, updated_at) " +
+            "VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE score = VALUES(score), updated_at = VALUES(updated_at)";
+    private static final String DELETE_SQL = "DELETE FROM trending_counters WHERE score < ?";
+
+    private final TrendingCounterRepository trendingCounterRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final double tauMillis;
+    private final double viewWeight;
+    private final double purchaseWeight;
+    private final int maxProducts;
+
+    // Raw bits of the log-space score per product
+    private final Map<Long, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    private volatile List<Long> top = Collections.emptyList();
+    private volatile long refreshedAt = System.currentTimeMillis();
+
+    public TrendingProducts(TrendingCounterRepository trendingCounterRepository,
+                            JdbcTemplate jdbcTemplate,
+                            @Value("${catalog.trending.tau-minutes:120}") long tauMinutes,
+                            @Value("${catalog.trending.view-weight:1.0}") double viewWeight,
+                            @Value("${catalog.trending.purchase-weight:10.0}") double purchaseWeight,
+                            @Value("${catalog.trending.max-products:50000}") int maxProducts) {
+        this.trendingCounterRepository = trendingCounterRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.tauMillis = tauMinutes * 60_000.0;
+        this.viewWeight = viewWeight;
+        this.purchaseWeight = purchaseWeight;
+        this.maxProducts = maxProducts;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        try {
+            List<TrendingCounter> checkpoint = trendingCounterRepository.findAll();
+            for (TrendingCounter counter : checkpoint) {
+                add(counter.getProductId(), counter.getScore());
+            }
+            refresh();
+            log.info("Trending counters restored: {} products", checkpoint.size());
+        } catch (Exception e) {
+            // Trends start from zero; the next checkpoint overwrites the table
+            log.error("Failed to restore trending counters", e);
+        }
+    }
+
+    public void recordView(Long productId) {
+        add(productId, boost(viewWeight, System.currentTimeMillis()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        long now = System.currentTimeMillis();
+        for (Long productId : event.getProductIds()) {
+            add(productId, boost(purchaseWeight, now));
+        }
+    }
+
+    /**
+     * Product ids with the most decayed activity as of the last refresh, most active first.
+     */
+    public List<Long> top(int limit) {
+        List<Long> snapshot = top;
+        return snapshot.subList(0, Math.min(Math.max(limit, 0), snapshot.size()));
+    }
+
+    public long getRefreshedAt() {
+        return refreshedAt;
+    }
+
+    // Rebuilds the top-k and drops counters that have decayed to nothing
+    @Scheduled(fixedDelayString = "${catalog.trending.refresh-interval-ms:10000}")
+    public void refresh() {
+        long now = System.currentTimeMillis();
+        double cutoff = cutoff(now);
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(MAX_TRENDING + 1, Map.Entry.comparingByValue());
+        counters.forEach((productId, bits) -> {
+            long raw = bits.get();
+            if (raw == PRUNED) {
+                return;
+            }
+            double score = Double.longBitsToDouble(raw);
+            if (score < cutoff) {
+                // Only prune the value just read; a concurrent add() wins and keeps the counter
+                if (bits.compareAndSet(raw, PRUNED)) {
+                    counters.remove(productId, bits);
+                }
+                return;
+            }
+            heap.add(Map.entry(productId, score));
+            if (heap.size() > MAX_TRENDING) {
+                heap.poll();
+            }
+        });
+
+        List<Long> ranked = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            ranked.add(heap.poll().getKey());
+        }
+        Collections.reverse(ranked);
+        top = Collections.unmodifiableList(ranked);
+        refreshedAt = now;
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.trending.checkpoint-interval-ms:300000}",
+               initialDelayString = "${catalog.trending.checkpoint-interval-ms:300000}")
+    public void checkpoint() {
+        long now = System.currentTimeMillis();
+        Timestamp updatedAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(counters.size());
+        counters.forEach((productId, bits) -> {
+            long raw = bits.get();
+            if (raw != PRUNED) {
+                rows.add(new Object[]{productId, Double.longBitsToDouble(raw), updatedAt});
+            }
+        });
+        try {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+            }
+            jdbcTemplate.update(DELETE_SQL, cutoff(now));
+            log.debug("Checkpointed {} trending counters", rows.size());
+        } catch (Exception e) {
+            log.error("Failed to checkpoint trending counters", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        checkpoint();
+    }
+
+    private void add(Long productId, double boost) {
+        while (true) {
+            AtomicLong bits = counters.get(productId);
+            if (bits == null) {
+                // Bounded so a flood of distinct ids cannot grow the map and the checkpoint without limit
+                if (counters.size() >= maxProducts) {
+                    return;
+                }
+                bits = counters.computeIfAbsent(productId,
+                        id -> new AtomicLong(Double.doubleToRawLongBits(Double.NEGATIVE_INFINITY)));
+            }
+            long previous = bits.get();
+            if (previous == PRUNED) {
+                counters.remove(productId, bits);
+                continue;
+            }
+            long next = Double.doubleToRawLongBits(logAdd(Double.longBitsToDouble(previous), boost));
+            if (bits.compareAndSet(previous, next)) {
+                return;
+            }
+        }
+    }
+
+    private double boost(double weight, long atMillis) {
+        return Math.log(weight) + (atMillis - EPOCH_MILLIS) / tauMillis;
+    }
+
+    // Log-space score below which the decayed activity is under MIN_ACTIVITY at the given time
+    private double cutoff(long nowMillis) {
+        return boost(MIN_ACTIVITY, nowMillis);
+    }
+
+    // log(e^a + e^b) without overflow
+    private static double logAdd(double a, double b) {
+        if (a == Double.NEGATIVE_INFINITY) {
+            return b;
+        }
+        double max = Math.max(a, b);
+        return max + Math.log1p(Math.exp(-Math.abs(a - b)));
+    }
+}
@@ -0,0 +1,202 @@
+package com.jewelryshop.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Character trigram index over a term vocabulary, used to find spelling corrections.
+ * Candidates sharing enough trigrams with the input are verified with a bounded
+ * edit distance. Trigrams shared by too many terms (the "$$r" start of every word
+ * beginning with r) are not scanned, and the number verified per lookup is capped,
+ * so a lookup costs about the same however large the vocabulary grows. Not
+ * thread-safe; the owner guards it.
+ */
+public class TrigramIndex {
+
+    // Shortest input worth correcting; one or two letters are left to prefix matching
+    public static final int MIN_TERM_LENGTH = 3;
+
+    // Upper bound on candidates verified with the edit distance per lookup
+    private static final int MAX_CANDIDATES = 64;
+
+    // Trigrams in more terms than this say little about a candidate and are skipped when counting
+    private static final int MAX_GRAM_TERMS = 2000;
+
+    private final Map<String, Set<String>> gramTerms = new HashMap<>();
+    private final int maxGramTerms;
+
+    public TrigramIndex() {
+        this(MAX_GRAM_TERMS);
+    }
+
+    TrigramIndex(int maxGramTerms) {
+        this.maxGramTerms = maxGramTerms;
+    }
+
+    public static class Match {
+        private final String term;
+        private final int distance;
+
+        Match(String term, int distance) {
+            this.term = term;
+            this.distance = distance;
+        }
+
+        public String getTerm() {
+            return term;
+        }
+
+        public int getDistance() {
+            return distance;
+        }
+    }
+
+    public void add(String term) {
+        if (!indexable(term)) {
+            return;
+        }
+        for (String gram : grams(term)) {
+            gramTerms.computeIfAbsent(gram, g -> new HashSet<>()).add(term);
+        }
+    }
+
+    public void remove(String term) {
+        if (!indexable(term)) {
+            return;
+        }
+        for (String gram : grams(term)) {
+            Set<String> terms = gramTerms.get(gram);
+            if (terms != null) {
+                terms.remove(term);
+                if (terms.isEmpty()) {
+                    gramTerms.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns vocabulary terms within the allowed edit distance of the input, closest first.
+     * The allowed distance grows with the input: one edit up to five letters, two beyond.
+     */
+    public List<Match> corrections(String term, int limit) {
+        if (!indexable(term)) {
+            return Collections.emptyList();
+        }
+        int maxDistance = term.length() <= 5 ? 1 : 2;
+        Set<String> queryGrams = grams(term);
+
+        Map<String, Integer> shared = new HashMap<>();
+        int skipped = 0;
+        for (String gram : queryGrams) {
+            Set<String> terms = gramTerms.get(gram);
+            if (terms == null) {
+                continue;
+            }
+            if (terms.size() > maxGramTerms) {
+                skipped++;
+                continue;
+            }
+            for (String candidate : terms) {
+                if (Math.abs(candidate.length() - term.length()) <= maxDistance) {
+                    shared.merge(candidate, 1, Integer::sum);
+                }
+            }
+        }
+
+        // An edit destroys at most three trigrams (four for a transposition), so terms sharing
+        // fewer cannot be within reach; skipped trigrams may have been among the shared ones
+        int minShared = Math.max(1, queryGrams.size() - 4 * maxDistance - skipped);
+        List<Map.Entry<String, Integer>> candidates = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : shared.entrySet()) {
+            if (entry.getValue() >= minShared) {
+                candidates.add(entry);
+            }
+        }
+        candidates.sort((a, b) -> {
+            int byShared = Integer.compare(b.getValue(), a.getValue());
+            return byShared != 0 ? byShared : a.getKey().compareTo(b.getKey());
+        });
+
+        List<Match> matches = new ArrayList<>();
+        for (int i = 0; i < candidates.size() && i < MAX_CANDIDATES; i++) {
+            String candidate = candidates.get(i).getKey();
+            int distance = editDistance(term, candidate, maxDistance);
+            if (distance <= maxDistance) {
+                matches.add(new Match(candidate, distance));
+            }
+        }
+        matches.sort((a, b) -> {
+            int byDistance = Integer.compare(a.distance, b.distance);
+            return byDistance != 0 ? byDistance : a.term.compareTo(b.term);
+        });
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    /**
+     * Optimal string alignment distance (Levenshtein plus adjacent transpositions), giving up
+     * with {@code max + 1} as soon as every alignment exceeds {@code max}.
+     */
+    static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previousPrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previousPrevious[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    // Measurements and SKUs ("22k", "jwl-r1") are matched exactly, never corrected
+    private static boolean indexable(String term) {
+        if (term.length() < MIN_TERM_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < term.length(); i++) {
+            if (!Character.isLetter(term.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Padded so that word starts and ends carry extra weight: "ring" -> $$r $ri rin ing ng$
+    private static Set<String> grams(String term) {
+        String padded = "$$" + term + "$";
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+}
@@ -11,4 +11,5 @@ public interface CategoryService {
     void deleteCategory(Long id);
     CategoryResponse getCategoryById(Long id);
     List<CategoryResponse> getAllCategories();
+    int rebuildClosure();
 }
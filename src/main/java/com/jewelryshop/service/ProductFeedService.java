@@ -0,0 +1,57 @@
+package com.jewelryshop.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ProductFeedService {
+
+    // The sitemap protocol caps a single sitemap file at 50,000 URLs
+    int SITEMAP_MAX_URLS = 50_000;
+
+    enum Format {
+        CSV("text/csv", "csv"),
+        JSONL("application/x-ndjson", "jsonl"),
+        SITEMAP("application/xml", "xml");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Writes every active product to the stream in the given format and returns how many were written.
+     * A sitemap only holds its first page; use {@link #writeSitemap} for the others.
+     */
+    long writeFeed(Format format, OutputStream out) throws IOException;
+
+    /**
+     * Number of sitemap files of at most {@link #SITEMAP_MAX_URLS} products the catalog needs (at least one).
+     */
+    int countSitemapPages();
+
+    /**
+     * Writes one page (0-based) of the product sitemap and returns how many URLs were written.
+     */
+    long writeSitemap(int page, OutputStream out) throws IOException;
+
+    /**
+     * Writes the sitemap index listing every sitemap page under the published sitemap URL.
+     */
+    void writeSitemapIndex(OutputStream out) throws IOException;
+
+    static String sitemapFileName(int page) {
+        return "products-" + page + ".xml";
+    }
+}
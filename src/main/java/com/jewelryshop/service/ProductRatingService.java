@@ -0,0 +1,15 @@
+package com.jewelryshop.service;
+
+import com.jewelryshop.entity.ProductRatingSummary;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface ProductRatingService {
+    void recordRating(Long productId, int rating);
+    void replaceRating(Long productId, int oldRating, int newRating);
+    void removeRating(Long productId, int rating);
+    ProductRatingSummary getSummary(Long productId);
+    Map<Long, ProductRatingSummary> getSummaries(Collection<Long> productIds);
+    int rebuildSummaries();
+}
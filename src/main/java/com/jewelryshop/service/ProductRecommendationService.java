@@ -0,0 +1,12 @@
+package com.jewelryshop.service;
+
+import com.jewelryshop.dto.ProductResponse;
+
+import java.util.List;
+
+public interface ProductRecommendationService {
+    List<ProductResponse> getBoughtTogether(Long productId, int limit);
+    List<ProductResponse> getBoughtTogetherForCart(Long userId, int limit);
+    List<ProductResponse> getRecentlyViewed(Long userId, int limit);
+    List<ProductResponse> getTrending(int limit);
+}
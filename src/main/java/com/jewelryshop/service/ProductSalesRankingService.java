@@ -0,0 +1,9 @@
+package com.jewelryshop.service;
+
+import java.time.LocalDateTime;
+
+public interface ProductSalesRankingService {
+    void recordSale(Long productId, int quantity, LocalDateTime soldAt);
+    void reverseSale(Long productId, int quantity);
+    int rebuildSortKeys();
+}
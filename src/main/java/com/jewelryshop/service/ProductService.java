@@ -1,21 +1,42 @@
 package com.jewelryshop.service;
 
+import com.jewelryshop.dto.CatalogFacetsResponse;
+import com.jewelryshop.dto.CursorPage;
+import com.jewelryshop.dto.ProductBatchItem;
 import com.jewelryshop.dto.ProductRequest;
 import com.jewelryshop.dto.ProductResponse;
+import com.jewelryshop.dto.ProductSummaryResponse;
+import com.jewelryshop.dto.SuggestionResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
+
 public interface ProductService {
     ProductResponse createProduct(ProductRequest request);
     ProductResponse updateProduct(Long id, ProductRequest request);
     void deleteProduct(Long id);
     ProductResponse getProductById(Long id);
+    List<ProductBatchItem> getProductsByIds(List<Long> ids);
     Page<ProductResponse> getAllProducts(Pageable pageable);
     
     Page<ProductResponse> getAllProductsWithFilters(String search, Long categoryId, 
                                                      Double minPrice, Double maxPrice, 
                                                      String sortBy, Pageable pageable);
     Page<ProductResponse> searchProducts(String keyword, Pageable pageable);
+    List<SuggestionResponse> suggestProducts(String query, int limit);
+    List<ProductResponse> getSimilarProducts(Long id, int limit);
     Page<ProductResponse> getProductsByCategory(Long categoryId, Pageable pageable);
     Page<ProductResponse> getFeaturedProducts(Pageable pageable);
+    Page<ProductSummaryResponse> getProductSummaries(String search, Long categoryId,
+                                                     Double minPrice, Double maxPrice,
+                                                     String sortBy, Pageable pageable);
+    CatalogFacetsResponse getProductFacets(String search, Long categoryId,
+                                           Double minPrice, Double maxPrice, int histogramBuckets);
+
+    CursorPage<ProductResponse> scrollProductsWithFilters(String search, Long categoryId,
+                                                          Double minPrice, Double maxPrice,
+                                                          String sortBy, String cursor, int size);
+    CursorPage<ProductResponse> scrollProductsByCategory(Long categoryId, String sortBy, String cursor, int size);
+    CursorPage<ProductResponse> scrollFeaturedProducts(String sortBy, String cursor, int size);
 }
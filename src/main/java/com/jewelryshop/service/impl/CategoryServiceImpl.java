@@ -1,19 +1,32 @@
 package com.jewelryshop.service.impl;
 
+import com.jewelryshop.cache.CategoryTreeSnapshot;
 import com.jewelryshop.dto.CategoryRequest;
 import com.jewelryshop.dto.CategoryResponse;
 import com.jewelryshop.entity.Category;
+import com.jewelryshop.entity.CategoryClosure;
+import com.jewelryshop.event.CategoryChangedEvent;
+import com.jewelryshop.exception.BadRequestException;
 import com.jewelryshop.exception.ResourceNotFoundException;
+import com.jewelryshop.repository.CategoryClosureRepository;
 import com.jewelryshop.repository.CategoryRepository;
 import com.jewelryshop.repository.ProductRepository;
 import com.jewelryshop.service.CategoryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,8 +35,11 @@ import java.util.stream.Collectors;
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final CategoryClosureRepository categoryClosureRepository;
+    private final CategoryTreeSnapshot categoryTreeSnapshot;
     private final ProductRepository productRepository;
     private final ModelMapper modelMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -41,7 +57,12 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         Category savedCategory = categoryRepository.save(category);
+        categoryClosureRepository.save(new CategoryClosure(savedCategory.getId(), savedCategory.getId(), 0));
+        if (category.getParent() != null) {
+            categoryClosureRepository.insertLinksUnder(savedCategory.getId(), category.getParent().getId());
+        }
         log.info("Category created successfully with ID: {}", savedCategory.getId());
+        eventPublisher.publishEvent(new CategoryChangedEvent(savedCategory.getId(), CategoryChangedEvent.Type.CREATED));
 
         return mapToCategoryResponse(savedCategory);
     }
@@ -57,14 +78,23 @@ public class CategoryServiceImpl implements CategoryService {
         category.setName(request.getName());
         category.setDescription(request.getDescription());
 
-        if (request.getParentId() != null) {
+        Long currentParentId = category.getParent() != null ? category.getParent().getId() : null;
+        if (request.getParentId() != null && !request.getParentId().equals(currentParentId)) {
             Category parent = categoryRepository.findById(request.getParentId())
                     .orElseThrow(() -> new ResourceNotFoundException("Category", "id", request.getParentId()));
+            if (categoryClosureRepository.existsByAncestorIdAndDescendantId(id, parent.getId())) {
+                throw new BadRequestException("A category cannot be moved under itself or one of its subcategories");
+            }
             category.setParent(parent);
+
+            List<Long> subtreeIds = categoryClosureRepository.findDescendantIds(id);
+            categoryClosureRepository.detachSubtree(subtreeIds);
+            categoryClosureRepository.attachSubtree(id, parent.getId());
         }
 
         Category updatedCategory = categoryRepository.save(category);
         log.info("Category updated successfully: {}", id);
+        eventPublisher.publishEvent(new CategoryChangedEvent(id, CategoryChangedEvent.Type.UPDATED));
 
         return mapToCategoryResponse(updatedCategory);
     }
@@ -77,28 +107,74 @@ public class CategoryServiceImpl implements CategoryService {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
 
+        // Subcategories go with it (cascade), and so do their closure rows
+        List<Long> subtreeIds = categoryClosureRepository.findDescendantIds(id);
         categoryRepository.delete(category);
+        if (!subtreeIds.isEmpty()) {
+            categoryClosureRepository.deleteSubtree(subtreeIds);
+        }
         log.info("Category deleted successfully: {}", id);
+        eventPublisher.publishEvent(new CategoryChangedEvent(id, CategoryChangedEvent.Type.DELETED));
     }
 
+    // No transaction here: both reads are served from the category tree snapshot
     @Override
-    @Transactional(readOnly = true)
     public CategoryResponse getCategoryById(Long id) {
-        Category category = categoryRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
-
-        return mapToCategoryResponse(category);
+        CategoryResponse category = categoryTreeSnapshot.get(id);
+        if (category == null) {
+            throw new ResourceNotFoundException("Category", "id", id);
+        }
+        return category;
     }
 
     @Override
-    @Transactional(readOnly = true)
     public List<CategoryResponse> getAllCategories() {
         log.info("Fetching all categories");
-        List<Category> categories = categoryRepository.findByParentIsNull();
+        return categoryTreeSnapshot.roots();
+    }
+
+    // Backfills the closure table on first start and repairs it if it has drifted from the categories
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void verifyClosure() {
+        try {
+            if (categoryClosureRepository.countSelfLinks() != categoryRepository.count()) {
+                rebuildClosure();
+            }
+        } catch (Exception e) {
+            // Subtree listings miss categories without closure rows until the next rebuild
+            log.error("Failed to verify category closure table", e);
+        }
+    }
+
+    @Override
+    @Transactional
+    public int rebuildClosure() {
+        Map<Long, Long> parents = new HashMap<>();
+        for (Object[] row : categoryRepository.findParentLinks()) {
+            parents.put((Long) row[0], (Long) row[1]);
+        }
+
+        List<CategoryClosure> links = new ArrayList<>();
+        for (Long categoryId : parents.keySet()) {
+            Set<Long> ancestors = new HashSet<>();
+            Long ancestorId = categoryId;
+            int depth = 0;
+            while (ancestorId != null) {
+                if (!ancestors.add(ancestorId)) {
+                    // A parent cycle left behind by older data; link up to where it closes
+                    log.warn("Category {} has a cycle in its parents at category {}", categoryId, ancestorId);
+                    break;
+                }
+                links.add(new CategoryClosure(ancestorId, categoryId, depth++));
+                ancestorId = parents.get(ancestorId);
+            }
+        }
 
-        return categories.stream()
-                .map(this::mapToCategoryResponse)
-                .collect(Collectors.toList());
+        categoryClosureRepository.deleteAllInBatch();
+        categoryClosureRepository.saveAll(links);
+        log.info("Category closure rebuilt: {} categories, {} links", parents.size(), links.size());
+        return links.size();
     }
 
     private CategoryResponse mapToCategoryResponse(Category category) {
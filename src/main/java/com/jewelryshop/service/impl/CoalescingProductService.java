@@ -0,0 +1,171 @@
+package com.jewelryshop.service.impl;
+
+import com.jewelryshop.cache.SingleFlight;
+import com.jewelryshop.dto.CatalogFacetsResponse;
+import com.jewelryshop.dto.CoalescingStatsResponse;
+import com.jewelryshop.dto.CursorPage;
+import com.jewelryshop.dto.ProductBatchItem;
+import com.jewelryshop.dto.ProductRequest;
+import com.jewelryshop.dto.ProductResponse;
+import com.jewelryshop.dto.ProductSummaryResponse;
+import com.jewelryshop.dto.SuggestionResponse;
+import com.jewelryshop.service.ProductService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Sits in front of {@link ProductServiceImpl} so identical concurrent catalog reads
+ * share one query and mapping pass. Writes go straight to the delegate.
+ */
+@Service
+@Primary
+@RequiredArgsConstructor
+public class CoalescingProductService implements ProductService {
+
+    private final ProductServiceImpl delegate;
+    private final SingleFlight<String> singleFlight = new SingleFlight<>();
+
+    @Override
+    public ProductResponse createProduct(ProductRequest request) {
+        return delegate.createProduct(request);
+    }
+
+    @Override
+    public ProductResponse updateProduct(Long id, ProductRequest request) {
+        return delegate.updateProduct(id, request);
+    }
+
+    @Override
+    public void deleteProduct(Long id) {
+        delegate.deleteProduct(id);
+    }
+
+    @Override
+    public ProductResponse getProductById(Long id) {
+        return singleFlight.execute(key("detail", id),
+                () -> delegate.getProductById(id));
+    }
+
+    @Override
+    public Page<ProductResponse> getAllProducts(Pageable pageable) {
+        return singleFlight.execute(key("all", pageKey(pageable)),
+                () -> delegate.getAllProducts(pageable));
+    }
+
+    @Override
+    public List<ProductBatchItem> getProductsByIds(List<Long> ids) {
+        return singleFlight.execute(key("batch", ids), () -> delegate.getProductsByIds(ids));
+    }
+
+    @Override
+    public Page<ProductResponse> getAllProductsWithFilters(String search, Long categoryId,
+                                                            Double minPrice, Double maxPrice,
+                                                            String sortBy, Pageable pageable) {
+        return singleFlight.execute(
+                key("filter", text(search), categoryId, minPrice, maxPrice, text(sortBy), pageKey(pageable)),
+                () -> delegate.getAllProductsWithFilters(search, categoryId, minPrice, maxPrice, sortBy, pageable));
+    }
+
+    @Override
+    public Page<ProductResponse> searchProducts(String keyword, Pageable pageable) {
+        return singleFlight.execute(key("search", text(keyword), pageKey(pageable)),
+                () -> delegate.searchProducts(keyword, pageable));
+    }
+
+    // Trie lookups are cheaper than coordinating waiters
+    @Override
+    public List<SuggestionResponse> suggestProducts(String query, int limit) {
+        return delegate.suggestProducts(query, limit);
+    }
+
+    @Override
+    public List<ProductResponse> getSimilarProducts(Long id, int limit) {
+        return singleFlight.execute(key("similar", id, limit), () -> delegate.getSimilarProducts(id, limit));
+    }
+
+    @Override
+    public Page<ProductResponse> getProductsByCategory(Long categoryId, Pageable pageable) {
+        return singleFlight.execute(key("category", categoryId, pageKey(pageable)),
+                () -> delegate.getProductsByCategory(categoryId, pageable));
+    }
+
+    @Override
+    public Page<ProductResponse> getFeaturedProducts(Pageable pageable) {
+        return singleFlight.execute(key("featured", pageKey(pageable)),
+                () -> delegate.getFeaturedProducts(pageable));
+    }
+
+    @Override
+    public Page<ProductSummaryResponse> getProductSummaries(String search, Long categoryId,
+                                                            Double minPrice, Double maxPrice,
+                                                            String sortBy, Pageable pageable) {
+        return singleFlight.execute(
+                key("summaries", text(search), categoryId, minPrice, maxPrice, text(sortBy), pageKey(pageable)),
+                () -> delegate.getProductSummaries(search, categoryId, minPrice, maxPrice, sortBy, pageable));
+    }
+
+    @Override
+    public CatalogFacetsResponse getProductFacets(String search, Long categoryId,
+                                                  Double minPrice, Double maxPrice, int histogramBuckets) {
+        return singleFlight.execute(
+                key("facets", text(search), categoryId, minPrice, maxPrice, histogramBuckets),
+                () -> delegate.getProductFacets(search, categoryId, minPrice, maxPrice, histogramBuckets));
+    }
+
+    @Override
+    public CursorPage<ProductResponse> scrollProductsWithFilters(String search, Long categoryId,
+                                                                 Double minPrice, Double maxPrice,
+                                                                 String sortBy, String cursor, int size) {
+        return singleFlight.execute(
+                key("scroll", text(search), categoryId, minPrice, maxPrice, text(sortBy), cursor, size),
+                () -> delegate.scrollProductsWithFilters(search, categoryId, minPrice, maxPrice, sortBy, cursor, size));
+    }
+
+    @Override
+    public CursorPage<ProductResponse> scrollProductsByCategory(Long categoryId, String sortBy, String cursor, int size) {
+        return singleFlight.execute(key("category-scroll", categoryId, text(sortBy), cursor, size),
+                () -> delegate.scrollProductsByCategory(categoryId, sortBy, cursor, size));
+    }
+
+    @Override
+    public CursorPage<ProductResponse> scrollFeaturedProducts(String sortBy, String cursor, int size) {
+        return singleFlight.execute(key("featured-scroll", text(sortBy), cursor, size),
+                () -> delegate.scrollFeaturedProducts(sortBy, cursor, size));
+    }
+
+    public List<CoalescingStatsResponse> getCoalescingStats(int limit) {
+        return singleFlight.stats(limit);
+    }
+
+    private static String key(String operation, Object... args) {
+        StringBuilder key = new StringBuilder(operation);
+        for (Object arg : args) {
+            key.append('|').append(arg == null ? "" : arg);
+        }
+        return key.toString();
+    }
+
+    // Search and sort matching is case-insensitive, so differently-cased inputs share a key
+    private static String text(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static String pageKey(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return "unpaged";
+        }
+        Sort sort = pageable.getSort();
+        String sortKey = sort.stream()
+                .map(order -> order.getProperty() + ":" + order.getDirection())
+                .collect(Collectors.joining(","));
+        return pageable.getPageNumber() + ":" + pageable.getPageSize() + ":" + sortKey;
+    }
+}
@@ -4,13 +4,18 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jewelryshop.dto.*;
 import com.jewelryshop.entity.*;
+import com.jewelryshop.event.OrderCancelledEvent;
+import com.jewelryshop.event.OrderPlacedEvent;
+import com.jewelryshop.event.ProductChangedEvent;
 import com.jewelryshop.exception.BadRequestException;
 import com.jewelryshop.exception.ResourceNotFoundException;
 import com.jewelryshop.repository.*;
 import com.jewelryshop.service.CouponService;
 import com.jewelryshop.service.OrderService;
+import com.jewelryshop.service.ProductSalesRankingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -34,6 +39,8 @@ public class OrderServiceImpl implements OrderService {
     private final ProductRepository productRepository;
     private final CouponService couponService;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductSalesRankingService productSalesRankingService;
 
     @Override
     @Transactional
@@ -122,9 +129,14 @@ public class OrderServiceImpl implements OrderService {
             Product product = cartItem.getProduct();
             product.setStockQuantity(product.getStockQuantity() - cartItem.getQuantity());
             productRepository.save(product);
+            productSalesRankingService.recordSale(product.getId(), cartItem.getQuantity(), LocalDateTime.now());
+            eventPublisher.publishEvent(new ProductChangedEvent(product.getId(), ProductChangedEvent.Type.STOCK_CHANGED));
         }
 
         orderRepository.save(savedOrder);
+        eventPublisher.publishEvent(new OrderPlacedEvent(savedOrder.getId(), savedOrder.getOrderItems().stream()
+                .map(orderItem -> orderItem.getProduct().getId())
+                .collect(Collectors.toList())));
 
         // Clear cart
         cart.getItems().clear();
@@ -142,8 +154,13 @@ public class OrderServiceImpl implements OrderService {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
 
+        boolean cancelling = order.getOrderStatus() != Order.OrderStatus.CANCELLED
+                && request.getOrderStatus() == Order.OrderStatus.CANCELLED;
         order.setOrderStatus(request.getOrderStatus());
         orderRepository.save(order);
+        if (cancelling) {
+            eventPublisher.publishEvent(orderCancelled(order));
+        }
 
         log.info("Order status updated successfully: {}", orderId);
         return mapToOrderResponse(order);
@@ -175,11 +192,14 @@ public class OrderServiceImpl implements OrderService {
             Product product = item.getProduct();
             product.setStockQuantity(product.getStockQuantity() + item.getQuantity());
             productRepository.save(product);
+            productSalesRankingService.reverseSale(product.getId(), item.getQuantity());
+            eventPublisher.publishEvent(new ProductChangedEvent(product.getId(), ProductChangedEvent.Type.STOCK_CHANGED));
         }
 
         order.setOrderStatus(Order.OrderStatus.CANCELLED);
         order.setCancellationReason(request.getReason());
         orderRepository.save(order);
+        eventPublisher.publishEvent(orderCancelled(order));
 
         log.info("Order cancelled successfully: {}", orderId);
         return mapToOrderResponse(order);
@@ -209,6 +229,12 @@ public class OrderServiceImpl implements OrderService {
         return orders.map(this::mapToOrderResponse);
     }
 
+    private static OrderCancelledEvent orderCancelled(Order order) {
+        return new OrderCancelledEvent(order.getId(), order.getOrderItems().stream()
+                .map(orderItem -> orderItem.getProduct().getId())
+                .collect(Collectors.toList()));
+    }
+
     private OrderResponse mapToOrderResponse(Order order) {
         OrderResponse response = new OrderResponse();
         response.setId(order.getId());
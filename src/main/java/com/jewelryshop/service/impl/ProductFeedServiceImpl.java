@@ -0,0 +1,298 @@
+package com.jewelryshop.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jewelryshop.service.ProductFeedService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Streams the active catalog straight from a forward-only JDBC cursor to the response.
+ * Only the exported columns are selected and each row is written as soon as it is read,
+ * so memory use does not grow with the catalog.
+ */
+@Service
+@Slf4j
+public class ProductFeedServiceImpl implements ProductFeedService {
+
+    private static final String SITEMAP_NAMESPACE = "http://www.sitemaps.org/schemas/sitemap/0.9";
+
+    private static final String FEED_SELECT = "SELECT p.id, p.sku, p.name, p.description, p.price, p.discount_price, " +
+            "p.stock_quantity, c.name AS category_name, p.updated_at, " +
+            "(SELECT i.image_url FROM product_images i WHERE i.product_id = p.id " +
+            "ORDER BY i.is_primary DESC, i.id LIMIT 1) AS image_url " +
+            "FROM products p LEFT JOIN categories c ON c.id = p.category_id " +
+            "WHERE p.deleted_at IS NULL AND p.is_active = TRUE ORDER BY p.id";
+
+    private static final String SITEMAP_SELECT = "SELECT p.id, p.updated_at FROM products p " +
+            "WHERE p.deleted_at IS NULL AND p.is_active = TRUE ORDER BY p.id LIMIT ? OFFSET ?";
+
+    private static final String ACTIVE_COUNT = "SELECT COUNT(*) FROM products p " +
+            "WHERE p.deleted_at IS NULL AND p.is_active = TRUE";
+
+    private static final String[] CSV_HEADER = {
+            "id", "sku", "name", "description", "price", "sale_price",
+            "availability", "stock_quantity", "category", "image_url", "link", "updated_at"
+    };
+
+    private final JdbcTemplate feedJdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final String storefrontUrl;
+    private final String sitemapUrl;
+
+    public ProductFeedServiceImpl(DataSource dataSource,
+                                  ObjectMapper objectMapper,
+                                  @Value("${catalog.feed.storefront-url:https://jewelryeshop.vercel.app}") String storefrontUrl,
+                                  @Value("${catalog.feed.sitemap-url:}") String sitemapUrl) {
+        // Connector/J buffers whole result sets unless the fetch size is Integer.MIN_VALUE,
+        // which streams rows one at a time over a forward-only, read-only cursor
+        this.feedJdbcTemplate = new JdbcTemplate(dataSource);
+        this.feedJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+        this.objectMapper = objectMapper;
+        this.storefrontUrl = withoutTrailingSlash(storefrontUrl);
+        this.sitemapUrl = sitemapUrl.isBlank() ? this.storefrontUrl + "/sitemaps" : withoutTrailingSlash(sitemapUrl);
+    }
+
+    @Override
+    public long writeFeed(Format format, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        long written;
+        try {
+            written = switch (format) {
+                case CSV -> writeCsv(out);
+                case JSONL -> writeJsonLines(out);
+                case SITEMAP -> writeSitemapPage(0, out);
+            };
+        } catch (UncheckedIOException e) {
+            // Usually the client went away mid-download
+            throw e.getCause();
+        }
+        log.info("Exported {} products as {} in {} ms", written, format, System.currentTimeMillis() - start);
+        return written;
+    }
+
+    private long writeCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeCsvRow(writer, CSV_HEADER);
+        long[] count = {0};
+        feedJdbcTemplate.query(FEED_SELECT, (ResultSet rs) -> {
+            FeedRow row = FeedRow.read(rs);
+            try {
+                writeCsvRow(writer, new String[]{
+                        String.valueOf(row.id), row.sku, row.name, row.description,
+                        plain(row.price), plain(row.discountPrice), row.availability(),
+                        String.valueOf(row.stockQuantity), row.categoryName, row.imageUrl,
+                        productUrl(row.id), row.updatedAt != null ? row.updatedAt.toLocalDateTime().toString() : null
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            count[0]++;
+        });
+        writer.flush();
+        return count[0];
+    }
+
+    private long writeJsonLines(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(new SerializedString("\n"));
+        long[] count = {0};
+        feedJdbcTemplate.query(FEED_SELECT, (ResultSet rs) -> {
+            FeedRow row = FeedRow.read(rs);
+            try {
+                generator.writeStartObject();
+                generator.writeNumberField("id", row.id);
+                generator.writeStringField("sku", row.sku);
+                generator.writeStringField("name", row.name);
+                generator.writeStringField("description", row.description);
+                generator.writeNumberField("price", row.price);
+                generator.writeNumberField("salePrice", row.discountPrice);
+                generator.writeStringField("availability", row.availability());
+                generator.writeNumberField("stockQuantity", row.stockQuantity);
+                generator.writeStringField("category", row.categoryName);
+                generator.writeStringField("imageUrl", row.imageUrl);
+                generator.writeStringField("link", productUrl(row.id));
+                generator.writeStringField("updatedAt",
+                        row.updatedAt != null ? row.updatedAt.toLocalDateTime().toString() : null);
+                generator.writeEndObject();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            count[0]++;
+        });
+        // The separator is only written between values; end the last line too
+        if (count[0] > 0) {
+            generator.writeRaw('\n');
+        }
+        generator.close();
+        return count[0];
+    }
+
+    @Override
+    public int countSitemapPages() {
+        Long products = feedJdbcTemplate.queryForObject(ACTIVE_COUNT, Long.class);
+        long count = products != null ? products : 0;
+        return (int) Math.max((count + SITEMAP_MAX_URLS - 1) / SITEMAP_MAX_URLS, 1);
+    }
+
+    @Override
+    public long writeSitemap(int page, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        long written;
+        try {
+            written = writeSitemapPage(page, out);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.info("Exported sitemap page {} with {} products in {} ms", page, written, System.currentTimeMillis() - start);
+        return written;
+    }
+
+    // Each page is published as a separate file under sitemapUrl, named like its download
+    @Override
+    public void writeSitemapIndex(OutputStream out) throws IOException {
+        int pages = countSitemapPages();
+        try {
+            XMLStreamWriter xml = XMLOutputFactory.newFactory().createXMLStreamWriter(out, "UTF-8");
+            xml.writeStartDocument("UTF-8", "1.0");
+            xml.writeStartElement("sitemapindex");
+            xml.writeDefaultNamespace(SITEMAP_NAMESPACE);
+            for (int page = 0; page < pages; page++) {
+                xml.writeStartElement("sitemap");
+                writeElement(xml, "loc", sitemapUrl + "/" + ProductFeedService.sitemapFileName(page));
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            xml.flush();
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    // One file of at most SITEMAP_MAX_URLS products, in id order so pages stay stable between exports
+    private long writeSitemapPage(int page, OutputStream out) throws IOException {
+        try {
+            XMLStreamWriter xml = XMLOutputFactory.newFactory().createXMLStreamWriter(out, "UTF-8");
+            xml.writeStartDocument("UTF-8", "1.0");
+            xml.writeStartElement("urlset");
+            xml.writeDefaultNamespace(SITEMAP_NAMESPACE);
+            long[] count = {0};
+            feedJdbcTemplate.query(SITEMAP_SELECT, (ResultSet rs) -> {
+                long id = rs.getLong("id");
+                Timestamp updatedAt = rs.getTimestamp("updated_at");
+                try {
+                    xml.writeStartElement("url");
+                    writeElement(xml, "loc", productUrl(id));
+                    if (updatedAt != null) {
+                        writeElement(xml, "lastmod", updatedAt.toLocalDateTime().toLocalDate().toString());
+                    }
+                    xml.writeEndElement();
+                } catch (XMLStreamException e) {
+                    throw new UncheckedIOException(new IOException(e));
+                }
+                count[0]++;
+            }, SITEMAP_MAX_URLS, (long) page * SITEMAP_MAX_URLS);
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            xml.flush();
+            xml.close();
+            return count[0];
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private String productUrl(long id) {
+        return storefrontUrl + "/products/" + id;
+    }
+
+    private static String withoutTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    private static void writeElement(XMLStreamWriter xml, String name, String text) throws XMLStreamException {
+        xml.writeStartElement(name);
+        xml.writeCharacters(text);
+        xml.writeEndElement();
+    }
+
+    // RFC 4180: fields holding separators, quotes or line breaks are quoted, quotes doubled
+    private static void writeCsvRow(Writer writer, String[] fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String field = fields[i];
+            if (field == null) {
+                continue;
+            }
+            if (field.indexOf(',') >= 0 || field.indexOf('"') >= 0 || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(field.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(field);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private static String plain(BigDecimal value) {
+        return value != null ? value.toPlainString() : null;
+    }
+
+    // Columns of one feed row, read before anything is written for it
+    private static final class FeedRow {
+        private long id;
+        private String sku;
+        private String name;
+        private String description;
+        private BigDecimal price;
+        private BigDecimal discountPrice;
+        private int stockQuantity;
+        private String categoryName;
+        private Timestamp updatedAt;
+        private String imageUrl;
+
+        static FeedRow read(ResultSet rs) throws SQLException {
+            FeedRow row = new FeedRow();
+            row.id = rs.getLong("id");
+            row.sku = rs.getString("sku");
+            row.name = rs.getString("name");
+            row.description = rs.getString("description");
+            row.price = rs.getBigDecimal("price");
+            row.discountPrice = rs.getBigDecimal("discount_price");
+            row.stockQuantity = rs.getInt("stock_quantity");
+            row.categoryName = rs.getString("category_name");
+            row.updatedAt = rs.getTimestamp("updated_at");
+            row.imageUrl = rs.getString("image_url");
+            return row;
+        }
+
+        String availability() {
+            return stockQuantity > 0 ? "in_stock" : "out_of_stock";
+        }
+    }
+}
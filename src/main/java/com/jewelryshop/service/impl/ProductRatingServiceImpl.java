@@ -0,0 +1,104 @@
+package com.jewelryshop.service.impl;
+
+import com.jewelryshop.entity.ProductRatingSummary;
+import com.jewelryshop.event.ProductChangedEvent;
+import com.jewelryshop.repository.ProductRatingSummaryRepository;
+import com.jewelryshop.repository.ProductRepository;
+import com.jewelryshop.repository.ReviewRepository;
+import com.jewelryshop.service.ProductRatingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductRatingServiceImpl implements ProductRatingService {
+
+    private final ProductRatingSummaryRepository summaryRepository;
+    private final ReviewRepository reviewRepository;
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public void recordRating(Long productId, int rating) {
+        applyDelta(productId, rating, 1);
+    }
+
+    @Override
+    @Transactional
+    public void replaceRating(Long productId, int oldRating, int newRating) {
+        if (oldRating != newRating) {
+            applyDelta(productId, newRating - oldRating, 0);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void removeRating(Long productId, int rating) {
+        applyDelta(productId, -rating, -1);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductRatingSummary getSummary(Long productId) {
+        return summaryRepository.findById(productId).orElse(null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, ProductRatingSummary> getSummaries(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return summaryRepository.findByProductIdIn(productIds).stream()
+                .collect(Collectors.toMap(ProductRatingSummary::getProductId, Function.identity()));
+    }
+
+    @Override
+    @Transactional
+    public int rebuildSummaries() {
+        log.info("Rebuilding product rating summaries from reviews");
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ProductRatingSummary> summaries = new ArrayList<>();
+        for (Object[] row : reviewRepository.getRatingTotalsGroupedByProduct()) {
+            long total = ((Number) row[1]).longValue();
+            long count = ((Number) row[2]).longValue();
+            summaries.add(new ProductRatingSummary((Long) row[0], total, count, (double) total / count, now));
+        }
+
+        summaryRepository.deleteAllInBatch();
+        summaryRepository.saveAll(summaries);
+        summaryRepository.flush();
+        productRepository.syncAllRatingSortKeys();
+
+        log.info("Rebuilt rating summaries for {} products", summaries.size());
+        return summaries.size();
+    }
+
+    private void applyDelta(Long productId, long ratingDelta, long countDelta) {
+        LocalDateTime now = LocalDateTime.now();
+        if (countDelta > 0) {
+            // May be the product's first review, with no summary row yet
+            summaryRepository.upsertDelta(productId, ratingDelta, countDelta, now);
+        } else {
+            summaryRepository.applyDelta(productId, ratingDelta, countDelta, now);
+        }
+        // Keep the denormalized rating sort keys on the product in step with the summary
+        productRepository.syncRatingSortKeys(productId);
+        eventPublisher.publishEvent(new ProductChangedEvent(productId, ProductChangedEvent.Type.RATING_CHANGED));
+    }
+}
@@ -0,0 +1,79 @@
+package com.jewelryshop.service.impl;
+
+import com.jewelryshop.cache.RecentlyViewedStore;
+import com.jewelryshop.dto.ProductBatchItem;
+import com.jewelryshop.dto.ProductResponse;
+import com.jewelryshop.entity.Cart;
+import com.jewelryshop.repository.CartRepository;
+import com.jewelryshop.search.CoOccurrenceIndex;
+import com.jewelryshop.search.TrendingProducts;
+import com.jewelryshop.service.ProductRecommendationService;
+import com.jewelryshop.service.ProductService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductRecommendationServiceImpl implements ProductRecommendationService {
+
+    private final CoOccurrenceIndex coOccurrenceIndex;
+    private final CartRepository cartRepository;
+    private final ProductService productService;
+    private final RecentlyViewedStore recentlyViewedStore;
+    private final TrendingProducts trendingProducts;
+
+    // Upper bound on products returned from a user's recently viewed list
+    private static final int MAX_RECENTLY_VIEWED = 50;
+
+    @Override
+    public List<ProductResponse> getBoughtTogether(Long productId, int limit) {
+        return loadProducts(coOccurrenceIndex.companionsOf(productId, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductResponse> getBoughtTogetherForCart(Long userId, int limit) {
+        List<Long> cartProductIds = cartRepository.findByUserIdWithItems(userId)
+                .map(Cart::getItems)
+                .orElse(new ArrayList<>())
+                .stream()
+                .map(item -> item.getProduct().getId())
+                .distinct()
+                .collect(Collectors.toList());
+        if (cartProductIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return loadProducts(coOccurrenceIndex.companionsOf(cartProductIds, limit));
+    }
+
+    @Override
+    public List<ProductResponse> getRecentlyViewed(Long userId, int limit) {
+        int size = Math.min(Math.max(limit, 1), MAX_RECENTLY_VIEWED);
+        List<Long> productIds = recentlyViewedStore.get(userId);
+        return loadProducts(productIds.subList(0, Math.min(size, productIds.size())));
+    }
+
+    @Override
+    public List<ProductResponse> getTrending(int limit) {
+        return loadProducts(trendingProducts.top(Math.min(Math.max(limit, 1), TrendingProducts.MAX_TRENDING)));
+    }
+
+    // Products that have since been deleted or deactivated are dropped
+    private List<ProductResponse> loadProducts(List<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return productService.getProductsByIds(productIds).stream()
+                .filter(item -> item.getStatus() == ProductBatchItem.Status.FOUND)
+                .map(ProductBatchItem::getProduct)
+                .filter(product -> !Boolean.FALSE.equals(product.getIsActive()))
+                .collect(Collectors.toList());
+    }
+}
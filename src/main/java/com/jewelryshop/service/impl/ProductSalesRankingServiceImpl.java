@@ -0,0 +1,66 @@
+package com.jewelryshop.service.impl;
+
+import com.jewelryshop.entity.Order;
+import com.jewelryshop.repository.OrderItemRepository;
+import com.jewelryshop.repository.ProductRepository;
+import com.jewelryshop.service.ProductSalesRankingService;
+import com.jewelryshop.util.PopularityScore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSalesRankingServiceImpl implements ProductSalesRankingService {
+
+    private final ProductRepository productRepository;
+    private final OrderItemRepository orderItemRepository;
+
+    @Override
+    @Transactional
+    public void recordSale(Long productId, int quantity, LocalDateTime soldAt) {
+        productRepository.recordSale(productId, quantity, PopularityScore.boost(quantity, soldAt));
+    }
+
+    @Override
+    @Transactional
+    public void reverseSale(Long productId, int quantity) {
+        productRepository.reverseSale(productId, quantity);
+    }
+
+    // Recomputes units sold and popularity from order history, plus the rating keys from the summaries
+    @Override
+    @Transactional
+    public int rebuildSortKeys() {
+        log.info("Rebuilding product sort keys from order history");
+
+        Map<Long, Long> unitsSold = new HashMap<>();
+        Map<Long, Double> popularity = new HashMap<>();
+        try (Stream<Object[]> sales = orderItemRepository.streamSales(Order.OrderStatus.CANCELLED)) {
+            sales.forEach(row -> {
+                Long productId = (Long) row[0];
+                int quantity = (Integer) row[1];
+                unitsSold.merge(productId, (long) quantity, Long::sum);
+                double boost = PopularityScore.boost(quantity, (LocalDateTime) row[2]);
+                popularity.put(productId, PopularityScore.add(popularity.get(productId), boost));
+            });
+        }
+
+        List<Long> productIds = productRepository.findAllIds();
+        for (Long productId : productIds) {
+            productRepository.setSalesSortKeys(productId, unitsSold.getOrDefault(productId, 0L), popularity.get(productId));
+        }
+        productRepository.syncAllRatingSortKeys();
+
+        log.info("Rebuilt sort keys for {} products ({} with sales)", productIds.size(), unitsSold.size());
+        return productIds.size();
+    }
+}
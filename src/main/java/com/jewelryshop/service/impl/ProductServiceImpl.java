@@ -1,23 +1,47 @@
 package com.jewelryshop.service.impl;
 
+import com.jewelryshop.cache.MappedProductStore;
+import com.jewelryshop.cache.ProductDetailCache;
 import com.jewelryshop.dto.*;
 import com.jewelryshop.entity.*;
+import com.jewelryshop.event.ProductChangedEvent;
 import com.jewelryshop.exception.BadRequestException;
 import com.jewelryshop.exception.ResourceNotFoundException;
+import com.jewelryshop.exception.ServiceUnavailableException;
 import com.jewelryshop.repository.*;
+import com.jewelryshop.search.ProductFacetEngine;
+import com.jewelryshop.search.SimilarProductIndex;
+import com.jewelryshop.search.ProductSuggester;
+import com.jewelryshop.search.SearchAnalytics;
+import com.jewelryshop.search.SearchBackendRouter;
+import com.jewelryshop.service.ProductRatingService;
 import com.jewelryshop.service.ProductService;
+import com.jewelryshop.util.ProductCursor;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -26,11 +50,30 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ProductServiceImpl implements ProductService {
 
+    // Upper bound on search hits handed to the database as an id list. Paths that filter and
+    // page in memory take every hit; only the database fallbacks and scrolling see the best ones
+    private static final int MAX_SEARCH_RESULTS = 1000;
+
+    private static final int ALL_SEARCH_RESULTS = Integer.MAX_VALUE;
+
+    // Upper bound on ids accepted by a single batch fetch
+    public static final int MAX_BATCH_SIZE = 50;
+
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final CategoryClosureRepository categoryClosureRepository;
     private final ProductImageRepository productImageRepository;
     private final ProductVariantRepository productVariantRepository;
-    private final ReviewRepository reviewRepository;
+    private final ProductRatingService productRatingService;
+    private final SearchBackendRouter searchBackendRouter;
+    private final SearchAnalytics searchAnalytics;
+    private final ProductSuggester productSuggester;
+    private final ProductFacetEngine productFacetEngine;
+    private final MappedProductStore mappedProductStore;
+    private final SimilarProductIndex similarProductIndex;
+    private final ProductDetailCache productDetailCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
     
     @PersistenceContext
     private EntityManager entityManager;
@@ -115,8 +158,9 @@ public class ProductServiceImpl implements ProductService {
             productVariantRepository.saveAll(variants);
         }
 
+        eventPublisher.publishEvent(new ProductChangedEvent(savedProduct.getId(), ProductChangedEvent.Type.CREATED));
         log.info("Product created successfully with ID: {}", savedProduct.getId());
-        return getProductById(savedProduct.getId());
+        return loadProductResponse(savedProduct.getId());
     }
 
     @Override
@@ -135,6 +179,7 @@ public class ProductServiceImpl implements ProductService {
         product.setPrice(request.getPrice());
         product.setDiscountPrice(request.getDiscountPrice());
         product.setStockQuantity(request.getStockQuantity());
+        boolean categoryMoved = product.getCategory() == null || !product.getCategory().getId().equals(category.getId());
         product.setCategory(category);
         product.setIsActive(request.getIsActive());
         product.setIsFeatured(request.getIsFeatured());
@@ -209,8 +254,9 @@ public class ProductServiceImpl implements ProductService {
             productVariantRepository.saveAll(variants);
         }
 
+        eventPublisher.publishEvent(new ProductChangedEvent(id, ProductChangedEvent.Type.UPDATED, categoryMoved));
         log.info("Product updated successfully: {}", id);
-        return getProductById(id);
+        return loadProductResponse(id);
     }
 
     @Override
@@ -225,16 +271,65 @@ public class ProductServiceImpl implements ProductService {
         product.setIsActive(false);
         productRepository.save(product);
 
+        eventPublisher.publishEvent(new ProductChangedEvent(id, ProductChangedEvent.Type.DELETED));
         log.info("Product soft deleted successfully: {}", id);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public ProductResponse getProductById(Long id) {
+        // Read-through cache; the transaction is only opened on a miss
+        return productDetailCache.getOrLoad(id, () -> {
+            TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+            readOnlyTransaction.setReadOnly(true);
+            return readOnlyTransaction.execute(status -> loadProductResponse(id));
+        });
+    }
+
+    private ProductResponse loadProductResponse(Long id) {
         Product product = productRepository.findByIdAndNotDeleted(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
 
-        return mapToProductResponse(product);
+        return mapToProductResponses(List.of(product)).get(0);
+    }
+
+    // One products query plus the three batched association queries, whatever the batch size
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductBatchItem> getProductsByIds(List<Long> ids) {
+        List<Long> requested = ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        if (requested.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("At most " + MAX_BATCH_SIZE + " product ids can be requested at once");
+        }
+        if (requested.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, Product> productsById = new HashMap<>();
+        List<Product> liveProducts = new ArrayList<>();
+        for (Product product : productRepository.findAllByIdInWithCategory(requested)) {
+            productsById.put(product.getId(), product);
+            if (product.getDeletedAt() == null) {
+                liveProducts.add(product);
+            }
+        }
+        Map<Long, ProductResponse> responsesById = mapToProductResponses(liveProducts).stream()
+                .collect(Collectors.toMap(ProductResponse::getId, response -> response));
+
+        List<ProductBatchItem> items = new ArrayList<>(requested.size());
+        for (Long id : requested) {
+            ProductResponse response = responsesById.get(id);
+            if (response != null) {
+                items.add(new ProductBatchItem(id, ProductBatchItem.Status.FOUND, response));
+            } else if (productsById.containsKey(id)) {
+                items.add(new ProductBatchItem(id, ProductBatchItem.Status.DELETED, null));
+            } else {
+                items.add(new ProductBatchItem(id, ProductBatchItem.Status.NOT_FOUND, null));
+            }
+        }
+        return items;
     }
 
     @Override
@@ -242,7 +337,7 @@ public class ProductServiceImpl implements ProductService {
     public Page<ProductResponse> getAllProducts(Pageable pageable) {
         log.info("Fetching all products with pagination");
         Page<Product> products = productRepository.findAllActiveProducts(pageable);
-        return products.map(this::mapToProductResponse);
+        return mapToProductResponsePage(products);
     }
     
     @Override
@@ -252,16 +347,90 @@ public class ProductServiceImpl implements ProductService {
                                                            String sortBy, Pageable pageable) {
         log.info("Fetching products with filters - search: {}, categoryId: {}, minPrice: {}, maxPrice: {}, sortBy: {}",
                 search, categoryId, minPrice, maxPrice, sortBy);
-        
+
+        long start = System.nanoTime();
+        Page<ProductResponse> page = findWithFilters(search, categoryId, minPrice, maxPrice, sortBy, pageable);
+        if (pageable.getPageNumber() == 0) {
+            recordSearch(search, page.getTotalElements(), start);
+        }
+        return page;
+    }
+
+    private Page<ProductResponse> findWithFilters(String search, Long categoryId,
+                                                  Double minPrice, Double maxPrice,
+                                                  String sortBy, Pageable pageable) {
+        boolean hasSearch = search != null && !search.isBlank();
+        List<Long> matchingIds = null;
+        if (hasSearch) {
+            int limit = productFacetEngine.isReady() ? ALL_SEARCH_RESULTS : MAX_SEARCH_RESULTS;
+            matchingIds = searchBackendRouter.search(search, limit);
+            if (matchingIds.isEmpty()) {
+                return Page.empty(pageable);
+            }
+        }
+
+        // Answer from the in-memory facet engine when it is warm and supports the sort
+        if (productFacetEngine.isReady()) {
+            ProductFacetEngine.Result result = productFacetEngine.query(
+                    matchingIds, categoryTree(categoryId), minPrice, maxPrice, sortBy, pageable);
+            if (result != null) {
+                List<Product> products = findActiveInOrder(result.getProductIds());
+                return new FacetedPage<>(mapToProductResponses(products), pageable,
+                        result.getTotalElements(), result.getFacets());
+            }
+        }
+
         // Apply sorting
         if (sortBy != null && !sortBy.isEmpty()) {
             pageable = applySorting(sortBy, pageable);
         }
         
-        Page<Product> products = productRepository.findWithFilters(search, categoryId, minPrice, maxPrice, pageable);
-        return products.map(this::mapToProductResponse);
+        Page<Product> products;
+        if (matchingIds != null) {
+            products = productRepository.findWithFiltersByIds(
+                    bestSearchResults(matchingIds), categoryId, minPrice, maxPrice, pageable);
+        } else {
+            products = productRepository.findWithFilters(search, categoryId, minPrice, maxPrice, pageable);
+        }
+        return mapToProductResponsePage(products);
     }
     
+    @Override
+    public CatalogFacetsResponse getProductFacets(String search, Long categoryId,
+                                                  Double minPrice, Double maxPrice, int histogramBuckets) {
+        log.info("Fetching product facets - search: {}, categoryId: {}, minPrice: {}, maxPrice: {}",
+                search, categoryId, minPrice, maxPrice);
+
+        // Facets are only computed from the columnar engine, which is built at startup and
+        // retried in the background; never load the whole catalog on a request thread
+        if (!productFacetEngine.isReady()) {
+            throw new ServiceUnavailableException("Product facets are warming up; please retry shortly");
+        }
+
+        List<Long> matchingIds = null;
+        if (search != null && !search.isBlank()) {
+            matchingIds = searchBackendRouter.search(search, ALL_SEARCH_RESULTS);
+        }
+        return productFacetEngine.facets(matchingIds, categoryTree(categoryId), minPrice, maxPrice, histogramBuckets);
+    }
+
+    // A customer search is counted once, on its first page, with the number of products left
+    // after filtering; later pages and the facet sidebar repeat the query and would inflate it
+    private void recordSearch(String query, long resultCount, long startNanos) {
+        if (query != null && !query.isBlank()) {
+            searchAnalytics.record(query, (int) Math.min(resultCount, Integer.MAX_VALUE), System.nanoTime() - startNanos);
+        }
+    }
+
+    private static List<Long> bestSearchResults(List<Long> rankedIds) {
+        return rankedIds.size() > MAX_SEARCH_RESULTS ? rankedIds.subList(0, MAX_SEARCH_RESULTS) : rankedIds;
+    }
+
+    // The category filter covers the whole subtree, as the database queries do
+    private List<Long> categoryTree(Long categoryId) {
+        return categoryId != null ? categoryClosureRepository.findDescendantIds(categoryId) : null;
+    }
+
     private Pageable applySorting(String sortBy, Pageable pageable) {
         org.springframework.data.domain.Sort sort;
         switch (sortBy.toLowerCase()) {
@@ -272,7 +441,13 @@ public class ProductServiceImpl implements ProductService {
                 sort = org.springframework.data.domain.Sort.by("price").descending();
                 break;
             case "rating":
-                sort = org.springframework.data.domain.Sort.by("id").descending(); // Placeholder for rating
+                sort = org.springframework.data.domain.Sort.by("averageRating", "reviewCount", "id").descending();
+                break;
+            case "popular":
+                sort = org.springframework.data.domain.Sort.by("popularityScore", "id").descending();
+                break;
+            case "best-selling":
+                sort = org.springframework.data.domain.Sort.by("unitsSold", "id").descending();
                 break;
             case "newest":
             default:
@@ -286,16 +461,68 @@ public class ProductServiceImpl implements ProductService {
     @Transactional(readOnly = true)
     public Page<ProductResponse> searchProducts(String keyword, Pageable pageable) {
         log.info("Searching products with keyword: {}", keyword);
-        Page<Product> products = productRepository.searchProducts(keyword, pageable);
-        return products.map(this::mapToProductResponse);
+
+        // Page through every ranked id and load only the requested slice
+        long start = System.nanoTime();
+        List<Long> rankedIds = searchBackendRouter.search(keyword, ALL_SEARCH_RESULTS);
+        if (pageable.getPageNumber() == 0) {
+            recordSearch(keyword, rankedIds.size(), start);
+        }
+        int from = (int) Math.min(pageable.getOffset(), rankedIds.size());
+        int to = Math.min(from + pageable.getPageSize(), rankedIds.size());
+        List<Product> products = findActiveInOrder(rankedIds.subList(from, to));
+        return new PageImpl<>(mapToProductResponses(products), pageable, rankedIds.size());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductResponse> getSimilarProducts(Long id, int limit) {
+        int size = Math.min(Math.max(limit, 1), SimilarProductIndex.MAX_NEIGHBOURS);
+        if (similarProductIndex.isReady()) {
+            List<Long> similarIds = similarProductIndex.similar(id, size);
+            if (!similarIds.isEmpty()) {
+                return mapToProductResponses(findActiveInOrder(similarIds));
+            }
+        }
+
+        // Index cold or product not indexed: same-category listing, as the detail page did before
+        Product product = productRepository.findByIdAndNotDeleted(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
+        if (product.getCategory() == null) {
+            return new ArrayList<>();
+        }
+        List<Product> sameCategory = productRepository
+                .findByCategoryId(product.getCategory().getId(), PageRequest.of(0, size + 1))
+                .getContent().stream()
+                .filter(candidate -> !candidate.getId().equals(id))
+                .limit(size)
+                .collect(Collectors.toList());
+        return mapToProductResponses(sameCategory);
+    }
+
+    // No transaction here: the trie path never touches the database
+    @Override
+    public List<SuggestionResponse> suggestProducts(String query, int limit) {
+        int size = Math.min(Math.max(limit, 1), ProductSuggester.MAX_SUGGESTIONS);
+        if (productSuggester.isReady()) {
+            return productSuggester.suggest(query, size);
+        }
+
+        String prefix = query == null ? "" : query.trim().toLowerCase(Locale.ROOT).replace("%", "").replace("_", "");
+        if (prefix.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return productRepository.findNamesStartingWith(prefix, PageRequest.of(0, size)).stream()
+                .map(row -> new SuggestionResponse((String) row[1], SuggestionResponse.Type.PRODUCT, (Long) row[0]))
+                .collect(Collectors.toList());
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<ProductResponse> getProductsByCategory(Long categoryId, Pageable pageable) {
         log.info("Fetching products by category ID: {}", categoryId);
-        Page<Product> products = productRepository.findByCategoryId(categoryId, pageable);
-        return products.map(this::mapToProductResponse);
+        Page<Product> products = productRepository.findByCategoryTree(categoryId, pageable);
+        return mapToProductResponsePage(products);
     }
 
     @Override
@@ -303,10 +530,178 @@ public class ProductServiceImpl implements ProductService {
     public Page<ProductResponse> getFeaturedProducts(Pageable pageable) {
         log.info("Fetching featured products");
         Page<Product> products = productRepository.findFeaturedProducts(pageable);
-        return products.map(this::mapToProductResponse);
+        return mapToProductResponsePage(products);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ProductSummaryResponse> getProductSummaries(String search, Long categoryId,
+                                                            Double minPrice, Double maxPrice,
+                                                            String sortBy, Pageable pageable) {
+        log.info("Fetching product summaries - search: {}, categoryId: {}, minPrice: {}, maxPrice: {}, sortBy: {}",
+                search, categoryId, minPrice, maxPrice, sortBy);
+
+        long start = System.nanoTime();
+        Page<ProductSummaryResponse> page = findSummaries(search, categoryId, minPrice, maxPrice, sortBy, pageable);
+        if (pageable.getPageNumber() == 0) {
+            recordSearch(search, page.getTotalElements(), start);
+        }
+        return page;
+    }
+
+    private Page<ProductSummaryResponse> findSummaries(String search, Long categoryId,
+                                                       Double minPrice, Double maxPrice,
+                                                       String sortBy, Pageable pageable) {
+        boolean offHeap = mappedProductStore.isReady() && productFacetEngine.isReady();
+        List<Long> matchingIds = null;
+        if (search != null && !search.isBlank()) {
+            int limit = offHeap ? ALL_SEARCH_RESULTS : MAX_SEARCH_RESULTS;
+            matchingIds = searchBackendRouter.search(search, limit);
+            if (matchingIds.isEmpty()) {
+                return Page.empty(pageable);
+            }
+        }
+
+        // Off-heap path: the facet engine picks the page, the mapped store supplies the rows
+        if (offHeap) {
+            ProductFacetEngine.Result result = productFacetEngine.query(
+                    matchingIds, categoryTree(categoryId), minPrice, maxPrice, sortBy, pageable);
+            if (result != null) {
+                List<ProductSummaryResponse> summaries = mappedProductStore.getSummaries(result.getProductIds());
+                if (summaries != null) {
+                    return new PageImpl<>(summaries, pageable, result.getTotalElements());
+                }
+            }
+        }
+
+        if (sortBy != null && !sortBy.isEmpty()) {
+            pageable = applySorting(sortBy, pageable);
+        }
+
+        if (matchingIds != null) {
+            return productRepository.findSummariesWithFiltersByIds(
+                    bestSearchResults(matchingIds), categoryId, minPrice, maxPrice, pageable);
+        }
+        return productRepository.findSummariesWithFilters(search, categoryId, minPrice, maxPrice, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProductResponse> scrollProductsWithFilters(String search, Long categoryId,
+                                                                 Double minPrice, Double maxPrice,
+                                                                 String sortBy, String cursor, int size) {
+        log.info("Scrolling products with filters - search: {}, categoryId: {}, minPrice: {}, maxPrice: {}, sortBy: {}",
+                search, categoryId, minPrice, maxPrice, sortBy);
+
+        Specification<Product> spec = ProductSpecifications.isActive()
+                .and(ProductSpecifications.inCategoryTree(categoryId))
+                .and(ProductSpecifications.priceBetween(minPrice, maxPrice));
+
+        if (search == null || search.isBlank()) {
+            return scroll(spec, sortBy, cursor, size);
+        }
+
+        // Keyset queries filter in the database, so a search scrolls through its best hits only
+        long start = System.nanoTime();
+        boolean firstPage = cursor == null || cursor.isBlank();
+        List<Long> matchingIds = searchBackendRouter.search(search, MAX_SEARCH_RESULTS);
+        if (matchingIds.isEmpty()) {
+            if (firstPage) {
+                recordSearch(search, 0, start);
+            }
+            return new CursorPage<>(new ArrayList<>(), 0, null, false);
+        }
+        spec = spec.and(ProductSpecifications.idIn(matchingIds));
+        CursorPage<ProductResponse> products = scroll(spec, sortBy, cursor, size);
+        if (firstPage) {
+            // A window has no total; count the filtered matches only when there is more than one page
+            recordSearch(search, products.getHasNext() ? productRepository.count(spec) : products.getSize(), start);
+        }
+        return products;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProductResponse> scrollProductsByCategory(Long categoryId, String sortBy, String cursor, int size) {
+        log.info("Scrolling products by category ID: {}", categoryId);
+        Specification<Product> spec = ProductSpecifications.isActive()
+                .and(ProductSpecifications.inCategoryTree(categoryId));
+        return scroll(spec, sortBy, cursor, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProductResponse> scrollFeaturedProducts(String sortBy, String cursor, int size) {
+        log.info("Scrolling featured products");
+        Specification<Product> spec = ProductSpecifications.isActive()
+                .and(ProductSpecifications.isFeatured());
+        return scroll(spec, sortBy, cursor, size);
+    }
+
+    // Keyset pagination: seeks past the last row of the previous page instead of using OFFSET
+    private CursorPage<ProductResponse> scroll(Specification<Product> spec, String sortBy, String cursor, int size) {
+        String sortKey = ProductCursor.normalizeSort(sortBy);
+        ScrollPosition position = ProductCursor.decode(sortKey, cursor);
+
+        Window<Product> window = productRepository.findBy(spec, query -> query
+                .project("category")
+                .sortBy(ProductCursor.toSort(sortKey))
+                .limit(size)
+                .scroll(position));
+
+        List<Product> products = window.getContent();
+        String nextCursor = window.hasNext() && !products.isEmpty()
+                ? ProductCursor.encode(sortKey, products.get(products.size() - 1))
+                : null;
+        return new CursorPage<>(mapToProductResponses(products), products.size(), nextCursor, window.hasNext());
+    }
+
+    // Loads active products by id, keeping the order of the given ids
+    private List<Product> findActiveInOrder(List<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Integer> position = new HashMap<>();
+        for (int i = 0; i < productIds.size(); i++) {
+            position.put(productIds.get(i), i);
+        }
+        return productRepository.findActiveByIdIn(productIds).stream()
+                .sorted(Comparator.comparing(product -> position.get(product.getId())))
+                .collect(Collectors.toList());
+    }
+
+    private Page<ProductResponse> mapToProductResponsePage(Page<Product> products) {
+        return new PageImpl<>(mapToProductResponses(products.getContent()),
+                products.getPageable(), products.getTotalElements());
+    }
+
+    // Fetch plan for a page of products: category is join-fetched by the page query, and
+    // images, variants and ratings are loaded for all products at once, so mapping costs
+    // three queries regardless of page size
+    private List<ProductResponse> mapToProductResponses(List<Product> products) {
+        if (products.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> productIds = products.stream()
+                .map(Product::getId)
+                .collect(Collectors.toList());
+
+        Map<Long, List<ProductImage>> images = productImageRepository.findByProductIdInOrderByIdAsc(productIds).stream()
+                .collect(Collectors.groupingBy(image -> image.getProduct().getId()));
+        Map<Long, List<ProductVariant>> variants = productVariantRepository.findByProductIdInOrderByIdAsc(productIds).stream()
+                .collect(Collectors.groupingBy(variant -> variant.getProduct().getId()));
+        Map<Long, ProductRatingSummary> ratings = productRatingService.getSummaries(productIds);
+
+        return products.stream()
+                .map(product -> mapToProductResponse(product,
+                        images.getOrDefault(product.getId(), List.of()),
+                        variants.getOrDefault(product.getId(), List.of()),
+                        ratings.get(product.getId())))
+                .collect(Collectors.toList());
     }
 
-    private ProductResponse mapToProductResponse(Product product) {
+    private ProductResponse mapToProductResponse(Product product, List<ProductImage> productImages,
+                                                 List<ProductVariant> productVariants, ProductRatingSummary rating) {
         ProductResponse response = new ProductResponse();
         response.setId(product.getId());
         response.setName(product.getName());
@@ -322,13 +717,13 @@ public class ProductServiceImpl implements ProductService {
         response.setCreatedAt(product.getCreatedAt());
 
         // Map images
-        List<ProductImageResponse> images = product.getImages().stream()
+        List<ProductImageResponse> images = productImages.stream()
                 .map(img -> new ProductImageResponse(img.getId(), img.getImageUrl(), img.getIsPrimary()))
                 .collect(Collectors.toList());
         response.setImages(images);
 
         // Map variants
-        List<ProductVariantResponse> variants = product.getVariants().stream()
+        List<ProductVariantResponse> variants = productVariants.stream()
                 .map(variant -> new ProductVariantResponse(
                         variant.getId(),
                         variant.getVariantName(),
@@ -338,11 +733,9 @@ public class ProductServiceImpl implements ProductService {
                 .collect(Collectors.toList());
         response.setVariants(variants);
 
-        // Get average rating and review count
-        Double avgRating = reviewRepository.getAverageRatingByProductId(product.getId());
-        Long reviewCount = reviewRepository.countByProductId(product.getId());
-        response.setAverageRating(avgRating != null ? avgRating : 0.0);
-        response.setReviewCount(reviewCount);
+        // Average rating and review count come from the denormalized summary
+        response.setAverageRating(rating != null ? rating.getAverageRating() : 0.0);
+        response.setReviewCount(rating != null ? rating.getReviewCount() : 0L);
 
         return response;
     }
@@ -10,6 +10,7 @@ import com.jewelryshop.exception.ResourceNotFoundException;
 import com.jewelryshop.repository.ProductRepository;
 import com.jewelryshop.repository.ReviewRepository;
 import com.jewelryshop.repository.UserRepository;
+import com.jewelryshop.service.ProductRatingService;
 import com.jewelryshop.service.ReviewService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,6 +27,7 @@ public class ReviewServiceImpl implements ReviewService {
     private final ReviewRepository reviewRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
+    private final ProductRatingService productRatingService;
 
     @Override
     @Transactional
@@ -49,6 +51,7 @@ public class ReviewServiceImpl implements ReviewService {
         review.setComment(request.getComment());
 
         Review savedReview = reviewRepository.save(review);
+        productRatingService.recordRating(product.getId(), savedReview.getRating());
         log.info("Review added successfully");
 
         return mapToReviewResponse(savedReview);
@@ -62,10 +65,12 @@ public class ReviewServiceImpl implements ReviewService {
         Review review = reviewRepository.findByIdAndUserId(reviewId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Review not found or unauthorized"));
 
+        int oldRating = review.getRating();
         review.setRating(request.getRating());
         review.setComment(request.getComment());
 
         Review updatedReview = reviewRepository.save(review);
+        productRatingService.replaceRating(review.getProduct().getId(), oldRating, updatedReview.getRating());
         log.info("Review updated successfully");
 
         return mapToReviewResponse(updatedReview);
@@ -80,6 +85,7 @@ public class ReviewServiceImpl implements ReviewService {
                 .orElseThrow(() -> new ResourceNotFoundException("Review not found or unauthorized"));
 
         reviewRepository.delete(review);
+        productRatingService.removeRating(review.getProduct().getId(), review.getRating());
         log.info("Review deleted successfully");
     }
 
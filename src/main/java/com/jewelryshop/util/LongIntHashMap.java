@@ -0,0 +1,221 @@
+package com.jewelryshop.util;
+
+/**
+ * Open-addressing long → int counter map with linear probing, for hot paths where
+ * boxing every key and value in a HashMap costs more than the data itself.
+ * Key 0 is reserved as the empty marker; entity ids start at 1.
+ * Each entry also records when it was last updated, so equal values rank by recency.
+ */
+public final class LongIntHashMap {
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long key, int value);
+    }
+
+    private long[] keys;
+    private int[] values;
+    // Value of clock at the entry's last update; compared with wrap-around arithmetic
+    private int[] touched;
+    private int clock;
+    private int size;
+    private int resizeAt;
+
+    public LongIntHashMap() {
+        this(8);
+    }
+
+    public LongIntHashMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    public int get(long key) {
+        int slot = find(key);
+        return keys[slot] == key ? values[slot] : 0;
+    }
+
+    /**
+     * Adds {@code delta} to the value for {@code key}, inserting it with {@code delta} if absent,
+     * and returns the new value.
+     */
+    public int addTo(long key, int delta) {
+        if (key == 0) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+        int slot = find(key);
+        touched[slot] = ++clock;
+        if (keys[slot] == key) {
+            values[slot] += delta;
+            return values[slot];
+        }
+        keys[slot] = key;
+        values[slot] = delta;
+        if (++size > resizeAt) {
+            rehash(keys.length * 2);
+        }
+        return delta;
+    }
+
+    /**
+     * Subtracts {@code delta} from the value for {@code key} if present, removing the entry once
+     * it reaches zero, and returns the new value. Absent keys stay absent. The update stamp is
+     * left alone, so taking counts back does not make an entry look recent.
+     */
+    public int subtractFrom(long key, int delta) {
+        int slot = find(key);
+        if (keys[slot] != key || key == 0) {
+            return 0;
+        }
+        values[slot] -= delta;
+        if (values[slot] > 0) {
+            return values[slot];
+        }
+        removeSlot(slot);
+        return 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0) {
+                consumer.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    /**
+     * Keys of the {@code k} largest values, largest first; ties go to the most recently updated key.
+     */
+    public long[] topKeys(int k) {
+        int[] topSlots = topSlots(k);
+        long[] topKeys = new long[topSlots.length];
+        for (int i = 0; i < topSlots.length; i++) {
+            topKeys[i] = keys[topSlots[i]];
+        }
+        return topKeys;
+    }
+
+    /**
+     * Drops everything but the {@code k} entries with the largest values. Among entries tied at
+     * the cut-off the recently updated ones stay, so a new key can work its way into a full map.
+     */
+    public void retainTop(int k) {
+        if (size <= k) {
+            return;
+        }
+        int[] topSlots = topSlots(k);
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        int[] oldTouched = touched;
+        allocate(tableSizeFor(k));
+        for (int slot : topSlots) {
+            insert(oldKeys[slot], oldValues[slot], oldTouched[slot]);
+        }
+    }
+
+    // Slots of the k highest-ranked entries, best first
+    private int[] topSlots(int k) {
+        int count = Math.min(k, size);
+        int[] topSlots = new int[count];
+        int filled = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] == 0) {
+                continue;
+            }
+            // Insertion into a sorted array; k is small
+            int position = filled;
+            while (position > 0 && ranksBefore(slot, topSlots[position - 1])) {
+                position--;
+            }
+            if (position >= count) {
+                continue;
+            }
+            int end = Math.min(filled, count - 1);
+            System.arraycopy(topSlots, position, topSlots, position + 1, end - position);
+            topSlots[position] = slot;
+            filled = Math.min(filled + 1, count);
+        }
+        return topSlots;
+    }
+
+    private boolean ranksBefore(int slot, int otherSlot) {
+        if (values[slot] != values[otherSlot]) {
+            return values[slot] > values[otherSlot];
+        }
+        return touched[slot] - touched[otherSlot] > 0;
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    // Backward-shift deletion: later entries of the probe run move into the gap, so lookups
+    // never stop early at a hole
+    private void removeSlot(int slot) {
+        int mask = keys.length - 1;
+        int gap = slot;
+        for (int next = (gap + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                touched[gap] = touched[next];
+                gap = next;
+            }
+        }
+        keys[gap] = 0;
+        values[gap] = 0;
+        touched[gap] = 0;
+        size--;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        int[] oldTouched = touched;
+        allocate(capacity);
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != 0) {
+                insert(oldKeys[slot], oldValues[slot], oldTouched[slot]);
+            }
+        }
+    }
+
+    // Re-inserts an entry into a table with room for it, keeping its update stamp
+    private void insert(long key, int value, int stamp) {
+        int slot = find(key);
+        keys[slot] = key;
+        values[slot] = value;
+        touched[slot] = stamp;
+        size++;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        touched = new int[capacity];
+        size = 0;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max((int) (expectedSize / LOAD_FACTOR), 4) - 1) << 1;
+        return Math.max(capacity, 8);
+    }
+
+    // Sequential ids would cluster under plain masking
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
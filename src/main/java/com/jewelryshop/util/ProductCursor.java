@@ -0,0 +1,87 @@
+package com.jewelryshop.util;
+
+import com.jewelryshop.entity.Product;
+import com.jewelryshop.exception.BadRequestException;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opaque keyset cursors for catalog listings. A cursor carries the sort it was
+ * issued for plus the sort key and id of the last product on the page.
+ */
+public final class ProductCursor {
+
+    public static final String NEWEST = "newest";
+    public static final String PRICE_ASC = "price-asc";
+    public static final String PRICE_DESC = "price-desc";
+
+    private ProductCursor() {
+    }
+
+    public static String normalizeSort(String sortBy) {
+        if (sortBy == null || sortBy.isEmpty()) {
+            return NEWEST;
+        }
+        switch (sortBy.toLowerCase()) {
+            case PRICE_ASC:
+                return PRICE_ASC;
+            case PRICE_DESC:
+                return PRICE_DESC;
+            case NEWEST:
+                return NEWEST;
+            default:
+                throw new BadRequestException("Sort '" + sortBy + "' is not supported with cursor pagination");
+        }
+    }
+
+    // The id tie-breaker makes the order total, which keyset pagination requires
+    public static Sort toSort(String sortKey) {
+        switch (sortKey) {
+            case PRICE_ASC:
+                return Sort.by(Sort.Order.asc("price"), Sort.Order.asc("id"));
+            case PRICE_DESC:
+                return Sort.by(Sort.Order.desc("price"), Sort.Order.desc("id"));
+            default:
+                return Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+        }
+    }
+
+    public static String encode(String sortKey, Product last) {
+        String value = NEWEST.equals(sortKey) ? last.getCreatedAt().toString() : last.getPrice().toPlainString();
+        String raw = sortKey + "|" + value + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ScrollPosition decode(String sortKey, String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            if (parts.length != 3 || !parts[0].equals(sortKey)) {
+                throw new BadRequestException("Cursor does not match the requested sort");
+            }
+
+            Map<String, Object> keys = new LinkedHashMap<>();
+            if (NEWEST.equals(sortKey)) {
+                keys.put("createdAt", LocalDateTime.parse(parts[1]));
+            } else {
+                keys.put("price", new BigDecimal(parts[1]));
+            }
+            keys.put("id", Long.valueOf(parts[2]));
+            return ScrollPosition.forward(keys);
+        } catch (BadRequestException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.jewelryshop.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jewelryshop.exception.BadRequestException;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Support for the "fields=" parameter: trims a response object to the requested properties
+public final class SparseFieldset {
+
+    private SparseFieldset() {
+    }
+
+    public static Set<String> parse(String fields, Class<?> type) {
+        Set<String> allowed = Arrays.stream(type.getDeclaredFields())
+                .map(Field::getName)
+                .collect(Collectors.toSet());
+
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(name)) {
+                throw new BadRequestException("Unknown field: " + name);
+            }
+            selected.add(name);
+        }
+        return selected;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> select(ObjectMapper objectMapper, Object value, Set<String> fields) {
+        Map<String, Object> properties = objectMapper.convertValue(value, Map.class);
+        Map<String, Object> selected = new LinkedHashMap<>();
+        for (String field : fields) {
+            selected.put(field, properties.get(field));
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,181 @@
+package com.jewelryshop.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jewelryshop.dto.ApiResponse;
+import com.jewelryshop.dto.ProductImageResponse;
+import com.jewelryshop.dto.ProductResponse;
+import com.jewelryshop.dto.ProductVariantResponse;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Compares the CPU a cached category page costs per request with rendering it each time,
+ * Jackson plus gzip, as the servlet container would without the cache. Opt-in:
+ * {@code mvn test -Dtest=RenderedResponseCacheBenchmarkTest -Dbenchmark=true}
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RenderedResponseCacheBenchmarkTest {
+
+    private static final int PAGE_SIZE = 24;
+    private static final int WARMUP_REQUESTS = 20_000;
+    private static final int MEASURED_REQUESTS = 20_000;
+    private static final String KEY = "category|1|0|" + PAGE_SIZE;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final RenderedResponseCache cache = new RenderedResponseCache(objectMapper, 200, 3600);
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private CapturingResponse lastResponse;
+
+    @Test
+    void cachedBytesVersusRenderingEveryRequest() {
+        Page<ProductResponse> products = categoryPage();
+        ApiResponse<Page<ProductResponse>> body = ApiResponse.success(products);
+        List<Long> productIds = products.getContent().stream().map(ProductResponse::getId).collect(Collectors.toList());
+
+        Runnable cached = () -> cache.write(gzipRequest(), KEY,
+                () -> RenderedResponseCache.Payload.listing(body, 1L, productIds));
+        Runnable rendered = () -> renderUncached(body, gzipRequest());
+
+        // Both paths send the same bytes
+        assertArrayEquals(send(cached), send(rendered));
+
+        // The mock request and response cost the same on both paths and are subtracted
+        double plumbingMicros = cpuMicrosPerRequest(this::gzipRequest);
+        double cachedMicros = cpuMicrosPerRequest(cached) - plumbingMicros;
+        double renderedMicros = cpuMicrosPerRequest(rendered) - plumbingMicros;
+        System.out.printf("category page of %d products: %d bytes gzipped%n", PAGE_SIZE, send(cached).length);
+        System.out.printf("mock request: %8.1f us CPU per request%n", plumbingMicros);
+        System.out.printf("cached:       %8.1f us CPU per request%n", cachedMicros);
+        System.out.printf("rendered:     %8.1f us CPU per request (%.0fx)%n", renderedMicros, renderedMicros / cachedMicros);
+    }
+
+    private double cpuMicrosPerRequest(Runnable request) {
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            request.run();
+        }
+        long start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < MEASURED_REQUESTS; i++) {
+            request.run();
+        }
+        return (threads.getCurrentThreadCpuTime() - start) / 1000.0 / MEASURED_REQUESTS;
+    }
+
+    private byte[] send(Runnable request) {
+        lastResponse = null;
+        request.run();
+        return lastResponse.body.toByteArray();
+    }
+
+    private ServletWebRequest gzipRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/category/1");
+        request.addHeader("Accept-Encoding", "gzip, deflate, br");
+        lastResponse = new CapturingResponse();
+        return new ServletWebRequest(request, lastResponse);
+    }
+
+    private void renderUncached(Object body, ServletWebRequest request) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            OutputStream out = request.getResponse().getOutputStream();
+            request.getResponse().setHeader("Content-Encoding", "gzip");
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(json);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // The mock response writes its body a byte at a time, which would swamp a cache hit;
+    // this one takes whole buffers, as the container's stream does
+    private static class CapturingResponse extends MockHttpServletResponse {
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(4096);
+        private final ServletOutputStream out = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) {
+                body.write(bytes, offset, length);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        };
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return out;
+        }
+    }
+
+    private static Page<ProductResponse> categoryPage() {
+        List<ProductResponse> products = new ArrayList<>();
+        for (long id = 1; id <= PAGE_SIZE; id++) {
+            ProductResponse product = new ProductResponse();
+            product.setId(id);
+            product.setName("Vintage 18k Gold Sapphire Ring " + id);
+            product.setSku("RING-" + id);
+            product.setDescription("A vintage ring in 18k yellow gold set with a 1.2 carat sapphire and a halo of "
+                    + "brilliant-cut diamonds. Handcrafted and hallmarked, shipped in a gift box.");
+            product.setPrice(BigDecimal.valueOf(1200 + id * 15));
+            product.setDiscountPrice(BigDecimal.valueOf(1100 + id * 15));
+            product.setStockQuantity(7);
+            product.setCategoryId(1L);
+            product.setCategoryName("Rings");
+            product.setIsActive(true);
+            product.setIsFeatured(id % 5 == 0);
+            product.setAverageRating(4.6);
+            product.setReviewCount(38L);
+            product.setCreatedAt(LocalDateTime.of(2026, 1, 1, 12, 0).plusHours(id));
+            for (long image = 0; image < 3; image++) {
+                product.getImages().add(new ProductImageResponse(id * 10 + image,
+                        "/uploads/products/ring-" + id + "-" + image + ".jpg", image == 0));
+            }
+            for (int size = 5; size <= 8; size++) {
+                ProductVariantResponse variant = new ProductVariantResponse();
+                variant.setId(id * 10 + size);
+                variant.setVariantName("Size " + size);
+                variant.setAdditionalPrice(BigDecimal.valueOf((size - 5) * 25L));
+                variant.setStockQuantity(2);
+                product.getVariants().add(variant);
+            }
+            products.add(product);
+        }
+        return new PageImpl<>(products, PageRequest.of(0, PAGE_SIZE), 480);
+    }
+}
@@ -0,0 +1,107 @@
+package com.jewelryshop.search;
+
+import com.jewelryshop.util.LongIntHashMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CoOccurrenceIndexTest {
+
+    private final Map<Long, LongIntHashMap> rows = new HashMap<>();
+
+    @Test
+    void everyPairInABasketIsCountedBothWays() {
+        CoOccurrenceIndex.addBasket(rows, basket(1, 2, 3));
+        CoOccurrenceIndex.addBasket(rows, basket(1, 2));
+
+        assertEquals(2, rows.get(1L).get(2L));
+        assertEquals(1, rows.get(1L).get(3L));
+        assertEquals(2, rows.get(2L).get(1L));
+        assertEquals(1, rows.get(3L).get(2L));
+        assertEquals(0, rows.get(1L).get(1L));
+        assertArrayEquals(new long[]{2L, 3L}, rows.get(1L).topKeys(5));
+    }
+
+    @Test
+    void singleItemBasketsAreIgnored() {
+        CoOccurrenceIndex.addBasket(rows, basket(5));
+
+        assertTrue(rows.isEmpty());
+    }
+
+    @Test
+    void onlyTheFirstProductsOfLargeBasketsArePaired() {
+        CoOccurrenceIndex.addBasket(rows, basket(LongStream.rangeClosed(1, 40).toArray()));
+
+        assertEquals(30, rows.size());
+        assertEquals(29, rows.get(1L).size());
+        assertFalse(rows.containsKey(31L));
+    }
+
+    @Test
+    void fullRowsArePrunedAndStillAcceptNewCompanions() {
+        // Product 1 bought once with each of 101 other products overflows its row
+        for (long companion = 100; companion <= 200; companion++) {
+            CoOccurrenceIndex.addBasket(rows, basket(1, companion));
+        }
+        assertEquals(50, rows.get(1L).size());
+
+        // A companion added later is tied with the survivors and must not be the one dropped
+        for (long companion = 300; companion <= 350; companion++) {
+            CoOccurrenceIndex.addBasket(rows, basket(1, companion));
+        }
+        LongIntHashMap row = rows.get(1L);
+        assertEquals(1, row.get(350L));
+        assertTrue(row.size() <= 100);
+    }
+
+    @Test
+    void repeatedCompanionsOutrankOneOffs() {
+        for (int i = 0; i < 3; i++) {
+            CoOccurrenceIndex.addBasket(rows, basket(1, 7));
+        }
+        for (long companion = 100; companion <= 200; companion++) {
+            CoOccurrenceIndex.addBasket(rows, basket(1, companion));
+        }
+
+        assertEquals(3, rows.get(1L).get(7L));
+        assertEquals(7L, rows.get(1L).topKeys(1)[0]);
+    }
+
+    @Test
+    void removingABasketTakesBackItsCounts() {
+        CoOccurrenceIndex.addBasket(rows, basket(1, 2, 3));
+        CoOccurrenceIndex.addBasket(rows, basket(1, 2));
+
+        CoOccurrenceIndex.removeBasket(rows, basket(1, 2, 3));
+
+        assertEquals(1, rows.get(1L).get(2L));
+        assertEquals(0, rows.get(1L).get(3L));
+        assertFalse(rows.containsKey(3L));
+        assertArrayEquals(new long[]{2L}, rows.get(1L).topKeys(5));
+    }
+
+    @Test
+    void removingAPrunedPairLeavesTheRowAlone() {
+        CoOccurrenceIndex.addBasket(rows, basket(1, 2));
+
+        CoOccurrenceIndex.removeBasket(rows, basket(1, 9));
+
+        assertEquals(1, rows.get(1L).get(2L));
+        assertEquals(1, rows.get(1L).size());
+    }
+
+    private static Set<Long> basket(long... productIds) {
+        return LongStream.of(productIds).boxed().collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
@@ -0,0 +1,81 @@
+package com.jewelryshop.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JewelryTokenizerTest {
+
+    @Test
+    void purityIsNormalizedAcrossSpellings() {
+        assertEquals(List.of("22k", "karat", "gold"), JewelryTokenizer.tokenize("22K gold"));
+        assertEquals(List.of("22k", "karat", "gold"), JewelryTokenizer.tokenize("22 kt gold"));
+        assertEquals(List.of("18k", "karat", "gold"), JewelryTokenizer.tokenize("18-karat gold"));
+    }
+
+    @Test
+    void britishCaratPurityMatchesKaratListing() {
+        List<String> query = JewelryTokenizer.tokenize("18 carat gold");
+        List<String> listing = JewelryTokenizer.tokenize("18K Gold Ring");
+
+        assertEquals(List.of("18k", "karat", "gold"), query);
+        // Every query token is required, so all of them must be indexed for the listing
+        assertTrue(new HashSet<>(listing).containsAll(query));
+    }
+
+    @Test
+    void stoneWeightKeepsCaratTokens() {
+        assertEquals(List.of("1ct", "carat", "diamond"), JewelryTokenizer.tokenize("1 carat diamond"));
+        assertEquals(List.of("0.5ct", "carat", "solitaire"), JewelryTokenizer.tokenize("0.5ct solitaire"));
+        assertEquals(List.of("2ct", "carat"), JewelryTokenizer.tokenize("2cts"));
+    }
+
+    @Test
+    void leadingZerosAreStripped() {
+        assertEquals(List.of("9k", "karat"), JewelryTokenizer.tokenize("09k"));
+        assertEquals(List.of("0.75ct", "carat"), JewelryTokenizer.tokenize(".75 ct"));
+    }
+
+    @Test
+    void pluralsAreStemmedAndStopWordsDropped() {
+        assertEquals(List.of("ring", "necklace", "earring"),
+                JewelryTokenizer.tokenize("Rings and necklaces with the earrings"));
+        assertEquals(List.of("watch", "accessory"), JewelryTokenizer.tokenize("watches, accessories"));
+        assertEquals(List.of("glass", "cubus"), JewelryTokenizer.tokenize("glass cubus"));
+    }
+
+    @Test
+    void skuSplitsIntoTheSamePartsOnBothSides() {
+        assertEquals(List.of("jw", "ab12cd34"), JewelryTokenizer.tokenize("JW-AB12CD34"));
+        assertEquals(JewelryTokenizer.tokenize("jw ab12cd34"), JewelryTokenizer.tokenize("JW-AB12CD34"));
+    }
+
+    @Test
+    void trailingTokenIsTheLastWordTyped() {
+        assertEquals("neckl", JewelryTokenizer.trailingToken("22K gold neckl"));
+        // Tokenized as 18k, karat, gold, ring: the word being typed is not the last token
+        assertEquals("gol", JewelryTokenizer.trailingToken("ring 18K gol"));
+        assertEquals("22", JewelryTokenizer.trailingToken("necklace 22"));
+    }
+
+    @Test
+    void completedWordsHaveNoTrailingToken() {
+        assertNull(JewelryTokenizer.trailingToken("gold ring "));
+        assertNull(JewelryTokenizer.trailingToken("gold ring,"));
+        assertNull(JewelryTokenizer.trailingToken("gold ring 18K"));
+        assertNull(JewelryTokenizer.trailingToken("diamond 1 ct"));
+        assertNull(JewelryTokenizer.trailingToken("ring with"));
+        assertNull(JewelryTokenizer.trailingToken(""));
+    }
+
+    @Test
+    void blankInputHasNoTokens() {
+        assertTrue(JewelryTokenizer.tokenize(null).isEmpty());
+        assertTrue(JewelryTokenizer.tokenize("   ").isEmpty());
+    }
+}
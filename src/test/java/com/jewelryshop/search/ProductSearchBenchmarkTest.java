@@ -0,0 +1,114 @@
+package com.jewelryshop.search;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Compares the in-memory search index with the LIKE fallback on a generated catalog of
+ * 100k products. Opt-in, as it takes a minute:
+ * {@code mvn test -Dtest=ProductSearchBenchmarkTest -Dbenchmark=true}
+ *
+ * H2 scans rows faster than MySQL over the network, so the LIKE figures flatter the
+ * fallback; both backends return every matching id, as the service asks them to.
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.jewelryshop=INFO"
+})
+@Import({ProductSearchIndex.class, LikeSearchBackend.class})
+class ProductSearchBenchmarkTest {
+
+    private static final int PRODUCTS = 100_000;
+    private static final int CATEGORIES = 20;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 20;
+
+    private static final String[] METALS = {"gold", "silver", "platinum", "rose gold", "white gold", "sterling silver"};
+    private static final String[] STONES = {"diamond", "ruby", "emerald", "sapphire", "pearl", "topaz", "amethyst", "opal"};
+    private static final String[] PIECES = {"ring", "necklace", "pendant", "bracelet", "earrings", "bangle", "anklet", "brooch"};
+    private static final String[] STYLES = {"classic", "vintage", "solitaire", "halo", "minimal", "floral", "bridal", "twisted"};
+
+    private static final String[] QUERIES = {"diamond", "gold ring", "emerald pendant", "neckl", "vintage sapphire bracelet"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private LikeSearchBackend likeSearchBackend;
+
+    @Test
+    void indexVersusLikeOnHundredThousandProducts() {
+        seedCatalog();
+
+        long start = System.nanoTime();
+        productSearchIndex.rebuild();
+        System.out.printf("index rebuild: %d ms for %d products%n", (System.nanoTime() - start) / 1_000_000, PRODUCTS);
+
+        System.out.printf("%-28s %8s %12s %8s %12s%n", "query", "hits", "index ms", "hits", "like ms");
+        for (String query : QUERIES) {
+            int indexHits = productSearchIndex.search(query, Integer.MAX_VALUE).size();
+            int likeHits = likeSearchBackend.search(query, Integer.MAX_VALUE).size();
+            double indexMillis = averageMillis(() -> productSearchIndex.search(query, Integer.MAX_VALUE));
+            double likeMillis = averageMillis(() -> likeSearchBackend.search(query, Integer.MAX_VALUE));
+            System.out.printf("%-28s %8d %12.2f %8d %12.2f%n", query, indexHits, indexMillis, likeHits, likeMillis);
+            assertFalse(indexHits == 0, "no index hits for " + query);
+        }
+    }
+
+    private static double averageMillis(Runnable search) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            search.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            search.run();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / MEASURED_ROUNDS;
+    }
+
+    private void seedCatalog() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> categories = new ArrayList<>();
+        for (int c = 1; c <= CATEGORIES; c++) {
+            categories.add(new Object[]{(long) c, PIECES[c % PIECES.length] + " collection " + c, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO categories (id, name, created_at) VALUES (?, ?, ?)", categories);
+
+        // Fixed seed, so every run searches the same catalog
+        Random random = new Random(42);
+        List<Object[]> products = new ArrayList<>(PRODUCTS);
+        for (int i = 1; i <= PRODUCTS; i++) {
+            String metal = METALS[random.nextInt(METALS.length)];
+            String stone = STONES[random.nextInt(STONES.length)];
+            String piece = PIECES[random.nextInt(PIECES.length)];
+            String style = STYLES[random.nextInt(STYLES.length)];
+            String name = style + " " + metal + " " + stone + " " + piece;
+            String description = "A " + style + " " + piece + " in " + (14 + random.nextInt(11)) + "k " + metal
+                    + " set with a " + (random.nextInt(300) / 100.0) + " carat " + stone + ". Handcrafted, piece " + i + ".";
+            products.add(new Object[]{(long) i, name, "BM-" + i, description, 100 + random.nextInt(5000),
+                    1 + random.nextInt(CATEGORIES), Timestamp.valueOf(LocalDateTime.now().minusMinutes(i))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO products (id, name, sku, description, price, stock_quantity, category_id, "
+                + "is_active, is_featured, average_rating, review_count, units_sold, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, 5, ?, TRUE, FALSE, 0, 0, 0, ?)", products);
+    }
+}
@@ -0,0 +1,119 @@
+package com.jewelryshop.search;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RebuildGateTest {
+
+    private final List<Long> applied = new ArrayList<>();
+    private final RebuildGate<Long> gate = new RebuildGate<>("test index", new NoOpTransactionManager());
+
+    @Test
+    void changesApplyImmediatelyOutsideRebuild() {
+        gate.submit(1L, applied::add);
+
+        assertEquals(List.of(1L), applied);
+    }
+
+    @Test
+    void changesDuringRebuildAreReplayedOnceAfterIt() {
+        gate.beginRebuild();
+        gate.submit(1L, applied::add);
+        gate.submit(2L, applied::add);
+        gate.submit(1L, applied::add);
+        assertEquals(List.of(), applied);
+
+        gate.endRebuild(applied::add);
+        assertEquals(List.of(1L, 2L), applied);
+
+        gate.submit(3L, applied::add);
+        assertEquals(List.of(1L, 2L, 3L), applied);
+    }
+
+    @Test
+    void overlappingRebuildsReplayWhenTheLastEnds() {
+        gate.beginRebuild();
+        gate.beginRebuild();
+        gate.submit(1L, applied::add);
+
+        gate.endRebuild(applied::add);
+        assertEquals(List.of(), applied);
+
+        gate.endRebuild(applied::add);
+        assertEquals(List.of(1L), applied);
+    }
+
+    @Test
+    void failingReplayDoesNotStopTheOthers() {
+        gate.beginRebuild();
+        gate.submit(1L, applied::add);
+        gate.submit(2L, applied::add);
+
+        gate.endRebuild(id -> {
+            if (id == 1L) {
+                throw new IllegalStateException("boom");
+            }
+            applied.add(id);
+        });
+        assertEquals(List.of(2L), applied);
+    }
+
+    @Test
+    void replayDoesNotBlockChangesToOtherKeys() throws Exception {
+        List<Long> seen = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch replaying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        gate.beginRebuild();
+        gate.submit(1L, seen::add);
+
+        Thread rebuild = new Thread(() -> gate.endRebuild(id -> {
+            replaying.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            seen.add(id);
+        }));
+        rebuild.start();
+        assertTrue(replaying.await(5, TimeUnit.SECONDS));
+
+        gate.submit(2L, seen::add);
+        assertEquals(List.of(2L), seen);
+
+        release.countDown();
+        rebuild.join();
+        assertEquals(List.of(2L, 1L), seen);
+    }
+
+    private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.jewelryshop.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrigramIndexTest {
+
+    @Test
+    void correctsSingleEditsInShortTerms() {
+        TrigramIndex index = indexOf("ring", "rings", "necklace", "bangle");
+
+        assertEquals(List.of("ring"), terms(index.corrections("rnig", 5)));
+        assertEquals(List.of("bangle"), terms(index.corrections("bangel", 5)));
+    }
+
+    @Test
+    void longerTermsAllowTwoEdits() {
+        TrigramIndex index = indexOf("necklace", "bracelet");
+
+        List<TrigramIndex.Match> matches = index.corrections("neklase", 5);
+        assertEquals(List.of("necklace"), terms(matches));
+        assertEquals(2, matches.get(0).getDistance());
+    }
+
+    @Test
+    void closestCorrectionsComeFirst() {
+        TrigramIndex index = indexOf("pendant", "pendants", "pennant");
+
+        assertEquals(List.of("pendant", "pendants", "pennant"), terms(index.corrections("pendant", 5)));
+        assertEquals(List.of("pendant"), terms(index.corrections("pendant", 1)));
+    }
+
+    @Test
+    void measurementsAndShortTermsAreNotIndexed() {
+        TrigramIndex index = indexOf("22k", "gold", "jwl-r1", "ab");
+
+        assertTrue(index.corrections("22x", 5).isEmpty());
+        assertTrue(index.corrections("jwl-r2", 5).isEmpty());
+        assertTrue(index.corrections("ab", 5).isEmpty());
+        assertEquals(List.of("gold"), terms(index.corrections("gild", 5)));
+    }
+
+    @Test
+    void removedTermsAreNoLongerSuggested() {
+        TrigramIndex index = indexOf("emerald", "emeralds");
+
+        index.remove("emerald");
+
+        assertEquals(List.of("emeralds"), terms(index.corrections("emerald", 5)));
+    }
+
+    @Test
+    void commonTrigramsAreSkippedWithoutLosingCorrections() {
+        TrigramIndex index = new TrigramIndex(3);
+        for (String term : List.of("ring", "ruby", "rose", "rope", "rhodium")) {
+            index.add(term);
+        }
+
+        // "$$r" is shared by all five terms and no longer scanned, "$ri" still finds the ring
+        assertEquals(List.of("ring"), terms(index.corrections("rign", 5)));
+        assertEquals(List.of("ruby"), terms(index.corrections("rubi", 5)));
+    }
+
+    @Test
+    void editDistanceCountsTranspositionsAsOneEdit() {
+        assertEquals(0, TrigramIndex.editDistance("gold", "gold", 2));
+        assertEquals(1, TrigramIndex.editDistance("gold", "glod", 2));
+        assertEquals(1, TrigramIndex.editDistance("ring", "rings", 2));
+        assertEquals(2, TrigramIndex.editDistance("silver", "silevrx", 2));
+        // Gives up once the bound is exceeded
+        assertEquals(2, TrigramIndex.editDistance("diamond", "ruby", 1));
+    }
+
+    private static TrigramIndex indexOf(String... terms) {
+        TrigramIndex index = new TrigramIndex();
+        for (String term : terms) {
+            index.add(term);
+        }
+        return index;
+    }
+
+    private static List<String> terms(List<TrigramIndex.Match> matches) {
+        return matches.stream().map(TrigramIndex.Match::getTerm).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,206 @@
+package com.jewelryshop.service.impl;
+
+import com.jewelryshop.cache.MappedProductStore;
+import com.jewelryshop.cache.ProductDetailCache;
+import com.jewelryshop.dto.ProductResponse;
+import com.jewelryshop.entity.Category;
+import com.jewelryshop.entity.CategoryClosure;
+import com.jewelryshop.entity.Product;
+import com.jewelryshop.entity.ProductImage;
+import com.jewelryshop.entity.ProductRatingSummary;
+import com.jewelryshop.entity.ProductVariant;
+import com.jewelryshop.search.ProductFacetEngine;
+import com.jewelryshop.search.ProductSuggester;
+import com.jewelryshop.search.SearchAnalytics;
+import com.jewelryshop.search.SearchBackendRouter;
+import com.jewelryshop.search.SimilarProductIndex;
+import com.jewelryshop.service.ProductService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pins the number of SQL statements behind product pages: a page must cost the same
+ * whether it holds 1, 12 or 100 products, so ratings, category, images and variants
+ * are never loaded per row.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@Import({ProductServiceImpl.class, ProductRatingServiceImpl.class})
+class ProductQueryCountTest {
+
+    private static final int PRODUCTS = 120;
+    private static final int[] PAGE_SIZES = {1, 12, 100};
+
+    // Page (with its category joined), count, then images, variants and rating summaries for the page
+    private static final long PAGE_STATEMENTS = 5;
+    // Ranked search pages are sliced from the id list, so there is no count query
+    private static final long SEARCH_PAGE_STATEMENTS = 4;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // The in-memory engines stay cold, so every page is answered from the database
+    @MockBean
+    private SearchBackendRouter searchBackendRouter;
+    @MockBean
+    private SearchAnalytics searchAnalytics;
+    @MockBean
+    private ProductSuggester productSuggester;
+    @MockBean
+    private ProductFacetEngine productFacetEngine;
+    @MockBean
+    private MappedProductStore mappedProductStore;
+    @MockBean
+    private SimilarProductIndex similarProductIndex;
+    @MockBean
+    private ProductDetailCache productDetailCache;
+
+    private Category category;
+    private final List<Long> productIds = new ArrayList<>();
+
+    @BeforeEach
+    void seedCatalog() {
+        category = new Category();
+        category.setName("Rings");
+        category.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(category);
+        entityManager.persist(new CategoryClosure(category.getId(), category.getId(), 0));
+
+        for (int i = 1; i <= PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName("Ring " + i);
+            product.setSku("RING-" + i);
+            product.setPrice(BigDecimal.valueOf(100 + i));
+            product.setStockQuantity(5);
+            product.setCategory(category);
+            product.setIsFeatured(true);
+            product.setCreatedAt(LocalDateTime.now().minusMinutes(i));
+            entityManager.persist(product);
+            productIds.add(product.getId());
+
+            for (int image = 0; image < 2; image++) {
+                ProductImage productImage = new ProductImage();
+                productImage.setProduct(product);
+                productImage.setImageUrl("/images/ring-" + i + "-" + image + ".jpg");
+                productImage.setIsPrimary(image == 0);
+                entityManager.persist(productImage);
+            }
+            for (int variant = 0; variant < 2; variant++) {
+                ProductVariant productVariant = new ProductVariant();
+                productVariant.setProduct(product);
+                productVariant.setVariantName("Size " + (6 + variant));
+                entityManager.persist(productVariant);
+            }
+
+            ProductRatingSummary summary = new ProductRatingSummary();
+            summary.setProductId(product.getId());
+            summary.setRatingTotal(9L);
+            summary.setReviewCount(2L);
+            summary.setAverageRating(4.5);
+            entityManager.persist(summary);
+        }
+    }
+
+    @Test
+    void listingPageCostsTheSameForEveryPageSize() {
+        assertStatementsPerPage(PAGE_STATEMENTS, pageable -> productService.getAllProductsWithFilters(
+                null, null, null, null, "newest", pageable));
+    }
+
+    @Test
+    void allProductsPageCostsTheSameForEveryPageSize() {
+        assertStatementsPerPage(PAGE_STATEMENTS, productService::getAllProducts);
+    }
+
+    @Test
+    void categoryPageCostsTheSameForEveryPageSize() {
+        assertStatementsPerPage(PAGE_STATEMENTS,
+                pageable -> productService.getProductsByCategory(category.getId(), pageable));
+    }
+
+    @Test
+    void featuredPageCostsTheSameForEveryPageSize() {
+        assertStatementsPerPage(PAGE_STATEMENTS, productService::getFeaturedProducts);
+    }
+
+    @Test
+    void searchPageCostsTheSameForEveryPageSize() {
+        when(searchBackendRouter.search(eq("ring"), anyInt())).thenReturn(productIds);
+
+        assertStatementsPerPage(SEARCH_PAGE_STATEMENTS, pageable -> productService.searchProducts("ring", pageable));
+    }
+
+    @Test
+    void productDetailIsLoadedInOneRoundOfQueries() {
+        when(productDetailCache.getOrLoad(anyLong(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<ProductResponse>>getArgument(1).get());
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ProductResponse product = productService.getProductById(productIds.get(0));
+
+        // Product with its category, then images, variants and the rating summary
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals("Rings", product.getCategoryName());
+        assertEquals(2, product.getImages().size());
+        assertEquals(2, product.getVariants().size());
+    }
+
+    // An exact count rather than only an equal one: batch fetching would hide a lost entity
+    // graph behind one extra query that is the same for every page size
+    private void assertStatementsPerPage(long expected, Function<Pageable, Page<ProductResponse>> loadPage) {
+        for (int size : PAGE_SIZES) {
+            entityManager.flush();
+            entityManager.clear();
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            Page<ProductResponse> page = loadPage.apply(PageRequest.of(0, size));
+
+            assertEquals(expected, statistics.getPrepareStatementCount(), "statements for a page of " + size);
+            assertEquals(size, page.getContent().size());
+            for (ProductResponse product : page.getContent()) {
+                assertEquals("Rings", product.getCategoryName());
+                assertEquals(2, product.getImages().size());
+                assertEquals(2, product.getVariants().size());
+                assertEquals(2L, product.getReviewCount());
+            }
+        }
+    }
+}
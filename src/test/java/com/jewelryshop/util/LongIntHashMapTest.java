@@ -0,0 +1,148 @@
+package com.jewelryshop.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LongIntHashMapTest {
+
+    @Test
+    void addToAccumulatesPerKey() {
+        LongIntHashMap map = new LongIntHashMap();
+        assertEquals(1, map.addTo(7L, 1));
+        assertEquals(4, map.addTo(7L, 3));
+        map.addTo(9L, 2);
+
+        assertEquals(4, map.get(7L));
+        assertEquals(2, map.get(9L));
+        assertEquals(0, map.get(8L));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void keyZeroIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new LongIntHashMap().addTo(0L, 1));
+    }
+
+    @Test
+    void rehashKeepsEveryEntry() {
+        LongIntHashMap map = new LongIntHashMap(2);
+        for (long key = 1; key <= 10_000; key++) {
+            map.addTo(key, (int) (key % 97));
+            map.addTo(key, 1);
+        }
+
+        assertEquals(10_000, map.size());
+        Map<Long, Integer> seen = new HashMap<>();
+        map.forEach(seen::put);
+        assertEquals(10_000, seen.size());
+        for (long key = 1; key <= 10_000; key++) {
+            assertEquals((int) (key % 97) + 1, map.get(key));
+        }
+    }
+
+    @Test
+    void subtractFromRemovesEntriesThatReachZero() {
+        LongIntHashMap map = new LongIntHashMap();
+        map.addTo(7L, 3);
+
+        assertEquals(2, map.subtractFrom(7L, 1));
+        assertEquals(0, map.subtractFrom(7L, 2));
+        assertEquals(0, map.subtractFrom(8L, 1));
+        assertEquals(0, map.get(7L));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    void removalKeepsProbeRunsReachable() {
+        LongIntHashMap map = new LongIntHashMap(2);
+        for (long key = 1; key <= 5_000; key++) {
+            map.addTo(key, 1);
+        }
+        for (long key = 1; key <= 5_000; key += 2) {
+            map.subtractFrom(key, 1);
+        }
+
+        assertEquals(2_500, map.size());
+        for (long key = 1; key <= 5_000; key++) {
+            assertEquals(key % 2 == 0 ? 1 : 0, map.get(key));
+        }
+        map.addTo(1L, 4);
+        assertEquals(4, map.get(1L));
+        assertEquals(2_501, map.size());
+    }
+
+    @Test
+    void topKeysAreOrderedByValue() {
+        LongIntHashMap map = new LongIntHashMap();
+        map.addTo(1L, 5);
+        map.addTo(2L, 9);
+        map.addTo(3L, 1);
+        map.addTo(4L, 7);
+
+        assertArrayEquals(new long[]{2L, 4L}, map.topKeys(2));
+        assertArrayEquals(new long[]{2L, 4L, 1L, 3L}, map.topKeys(10));
+    }
+
+    @Test
+    void topKeysBreakTiesTowardTheMostRecentlyUpdated() {
+        LongIntHashMap map = new LongIntHashMap();
+        map.addTo(5L, 2);
+        map.addTo(3L, 2);
+        map.addTo(9L, 2);
+        map.addTo(3L, 0);
+
+        assertArrayEquals(new long[]{3L, 9L, 5L}, map.topKeys(3));
+    }
+
+    @Test
+    void retainTopKeepsLargestValuesWithTheirCounts() {
+        LongIntHashMap map = new LongIntHashMap();
+        for (long key = 1; key <= 20; key++) {
+            map.addTo(key, (int) key);
+        }
+
+        map.retainTop(5);
+
+        assertEquals(5, map.size());
+        assertArrayEquals(new long[]{20L, 19L, 18L, 17L, 16L}, map.topKeys(5));
+        assertEquals(18, map.get(18L));
+        assertEquals(0, map.get(15L));
+    }
+
+    @Test
+    void retainTopLetsNewKeysIntoAFullMap() {
+        LongIntHashMap map = new LongIntHashMap();
+        for (long key = 100; key < 200; key++) {
+            map.addTo(key, 1);
+        }
+        map.retainTop(50);
+
+        // A new product tied with everything else survives the next prune; with ties going to
+        // the smaller key, a new (higher) id could never stay
+        map.addTo(500L, 1);
+        map.retainTop(50);
+
+        assertEquals(1, map.get(500L));
+        assertEquals(50, map.size());
+    }
+
+    @Test
+    void retainTopKeepsRecencyAcrossRehash() {
+        LongIntHashMap map = new LongIntHashMap(2);
+        map.addTo(1L, 1);
+        for (long key = 2; key <= 100; key++) {
+            map.addTo(key, 1);
+        }
+        map.addTo(1L, 0);
+
+        map.retainTop(1);
+
+        assertArrayEquals(new long[]{1L}, map.topKeys(1));
+    }
+}
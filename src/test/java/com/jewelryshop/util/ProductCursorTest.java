@@ -0,0 +1,96 @@
+package com.jewelryshop.util;
+
+import com.jewelryshop.entity.Product;
+import com.jewelryshop.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductCursorTest {
+
+    @Test
+    void normalizeSortAcceptsKeysetSortsOnly() {
+        assertEquals(ProductCursor.NEWEST, ProductCursor.normalizeSort(null));
+        assertEquals(ProductCursor.NEWEST, ProductCursor.normalizeSort(""));
+        assertEquals(ProductCursor.PRICE_ASC, ProductCursor.normalizeSort("Price-Asc"));
+        assertEquals(ProductCursor.PRICE_DESC, ProductCursor.normalizeSort("price-desc"));
+        assertThrows(BadRequestException.class, () -> ProductCursor.normalizeSort("rating"));
+    }
+
+    @Test
+    void sortsEndWithTheIdTieBreaker() {
+        Sort sort = ProductCursor.toSort(ProductCursor.PRICE_DESC);
+
+        List<Sort.Order> orders = sort.toList();
+        assertEquals("price", orders.get(0).getProperty());
+        assertEquals("id", orders.get(1).getProperty());
+        assertTrue(orders.get(1).isDescending());
+    }
+
+    @Test
+    void priceCursorRoundTrips() {
+        Product last = product(42L, new BigDecimal("12999.50"), null);
+
+        String cursor = ProductCursor.encode(ProductCursor.PRICE_ASC, last);
+        ScrollPosition position = ProductCursor.decode(ProductCursor.PRICE_ASC, cursor);
+
+        KeysetScrollPosition keyset = assertInstanceOf(KeysetScrollPosition.class, position);
+        assertEquals(new BigDecimal("12999.50"), keyset.getKeys().get("price"));
+        assertEquals(42L, keyset.getKeys().get("id"));
+    }
+
+    @Test
+    void newestCursorRoundTrips() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123_000_000);
+        Product last = product(7L, BigDecimal.TEN, createdAt);
+
+        String cursor = ProductCursor.encode(ProductCursor.NEWEST, last);
+        KeysetScrollPosition keyset = (KeysetScrollPosition) ProductCursor.decode(ProductCursor.NEWEST, cursor);
+
+        assertEquals(createdAt, keyset.getKeys().get("createdAt"));
+        assertEquals(7L, keyset.getKeys().get("id"));
+    }
+
+    @Test
+    void missingCursorStartsAtTheBeginning() {
+        KeysetScrollPosition keyset = (KeysetScrollPosition) ProductCursor.decode(ProductCursor.NEWEST, null);
+
+        assertTrue(keyset.isInitial());
+    }
+
+    @Test
+    void cursorFromAnotherSortIsRejected() {
+        String cursor = ProductCursor.encode(ProductCursor.PRICE_ASC, product(1L, BigDecimal.ONE, null));
+
+        assertThrows(BadRequestException.class, () -> ProductCursor.decode(ProductCursor.PRICE_DESC, cursor));
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        String badPrice = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("price-asc|abc|1".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(BadRequestException.class, () -> ProductCursor.decode(ProductCursor.PRICE_ASC, "%%%"));
+        assertThrows(BadRequestException.class, () -> ProductCursor.decode(ProductCursor.PRICE_ASC, badPrice));
+    }
+
+    private static Product product(Long id, BigDecimal price, LocalDateTime createdAt) {
+        Product product = new Product();
+        product.setId(id);
+        product.setPrice(price);
+        product.setCreatedAt(createdAt);
+        return product;
+    }
+}